@@ -0,0 +1,125 @@
+package com.example.budgettracker.benchmark;
+
+import com.example.budgettracker.BudgetTrackerApplication;
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.service.IncomeRollupService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application on the H2 test configuration (test resources come first on the
+ * benchmark classpath) and seeds users with a fixed, reproducible data set.
+ */
+final class BenchmarkContext {
+
+    static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private static final Period[] PERIODS = {Period.MONTHLY, Period.MONTHLY, Period.YEARLY, Period.WEEKLY, Period.QUARTERLY};
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(BudgetTrackerApplication.class);
+        application.setDefaultProperties(Map.of(
+                "server.port", "0",
+                "spring.main.banner-mode", "off",
+                "logging.level.root", "WARN"));
+        // Test-only security configuration is on the classpath but must not be scanned
+        application.addInitializers(context -> context.getBeanFactory()
+                .registerSingleton("excludeTestConfiguration", new ExcludeTestConfiguration()));
+        return application.run();
+    }
+
+    /**
+     * A user with the given number of subscriptions spread over a few categories, and
+     * two monthly salaries plus a one-off payment per month for the given number of months.
+     */
+    static AppUser seedUser(ConfigurableApplicationContext context, String googleSub, int subscriptions, int months) {
+        AppUserRepository appUserRepository = context.getBean(AppUserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        SubscriptionRepository subscriptionRepository = context.getBean(SubscriptionRepository.class);
+        IncomeRepository incomeRepository = context.getBean(IncomeRepository.class);
+        IncomeRollupService incomeRollupService = context.getBean(IncomeRollupService.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        return transactionTemplate.execute(status -> {
+            AppUser user = appUserRepository.save(new AppUser(googleSub, "Benchmark User", googleSub + "@example.com", null));
+            List<Category> categories = categoryRepository.saveAll(List.of(
+                    new Category("Streaming", user), new Category("Software", user), new Category("Utilities", user),
+                    new Category("Fitness", user), new Category("Income", user)));
+
+            for (int i = 0; i < subscriptions; i++) {
+                var subscription = TestDataBuilder.createTestSubscription(null, "Subscription " + i,
+                        BigDecimal.valueOf(499 + i * 37L, 2), PERIODS[i % PERIODS.length], user,
+                        categories.get(i % (categories.size() - 1)));
+                subscription.setNextBillingDate(TODAY.plusDays(i % 45));
+                subscription.setActive(i % 10 != 0);
+                subscriptionRepository.save(subscription);
+            }
+
+            List<Income> incomes = new ArrayList<>();
+            LocalDate firstMonth = TODAY.withDayOfMonth(1).minusMonths(months - 1L);
+            for (int m = 0; m < months; m++) {
+                LocalDate month = firstMonth.plusMonths(m);
+                incomes.add(income(user, categories.get(4), "Salary", "2500.00", month.withDayOfMonth(1)));
+                incomes.add(income(user, categories.get(4), "Salary", "2500.00", month.withDayOfMonth(15)));
+                incomes.add(income(user, null, "Side job", BigDecimal.valueOf(100 + m * 13L).toPlainString(), month.withDayOfMonth(20)));
+            }
+            incomeRepository.saveAll(incomes);
+            incomeRepository.flush();
+            incomeRollupService.rebuild(user);
+            return user;
+        });
+    }
+
+    private static Income income(AppUser user, Category category, String name, String amount, LocalDate date) {
+        Income income = new Income();
+        income.setName(name);
+        income.setAmount(new BigDecimal(amount));
+        income.setIncomeDate(date);
+        income.setPeriod(Period.ONE_TIME);
+        income.setCategory(category);
+        income.setAppUser(user);
+        return income;
+    }
+
+    private static final class ExcludeTestConfiguration extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.budgettracker.benchmark;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.service.CategoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default-category seeding for a first login: one lookup and a batched insert of the
+ * default set, reported per inserted row. Each invocation seeds a fresh user; seeded users
+ * are removed after each iteration so the category table size stays constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CategorySeedingBenchmark {
+
+    /** Size of the default category set; checked against an actual seed at trial setup. */
+    static final int DEFAULT_CATEGORY_ROWS = 9;
+
+    private static final String SUB_PREFIX = "bench-seed-";
+
+    private ConfigurableApplicationContext context;
+    private CategoryService categoryService;
+    private AppUserRepository appUserRepository;
+    private JdbcTemplate jdbcTemplate;
+    private long sequence;
+    private AppUser user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        categoryService = context.getBean(CategoryService.class);
+        appUserRepository = context.getBean(AppUserRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        newUser();
+        categoryService.ensureDefaultCategoriesExist(user);
+        Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM category WHERE app_user_id = ?", Integer.class, user.getId());
+        if (seeded == null || seeded != DEFAULT_CATEGORY_ROWS) {
+            throw new IllegalStateException("Seeding inserted " + seeded + " rows, expected " + DEFAULT_CATEGORY_ROWS);
+        }
+        deleteSeeded();
+    }
+
+    // Not measured: each invocation needs a user without categories
+    @Setup(Level.Invocation)
+    public void newUser() {
+        String googleSub = SUB_PREFIX + sequence++;
+        user = appUserRepository.save(new AppUser(googleSub, "Seeding User", googleSub + "@example.com", null));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSeeded() {
+        jdbcTemplate.update("DELETE FROM category WHERE app_user_id IN (SELECT id FROM app_user WHERE google_sub LIKE ?)", SUB_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM app_user WHERE google_sub LIKE ?", SUB_PREFIX + "%");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEFAULT_CATEGORY_ROWS)
+    public void seedDefaultCategories() {
+        categoryService.ensureDefaultCategoriesExist(user);
+    }
+}
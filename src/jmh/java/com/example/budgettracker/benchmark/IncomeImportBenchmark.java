@@ -0,0 +1,71 @@
+package com.example.budgettracker.benchmark;
+
+import com.example.budgettracker.dto.ImportResultResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.service.ImportFormat;
+import com.example.budgettracker.service.ImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV income import on H2: parsing, validation, batched inserts and rollup maintenance,
+ * reported per imported row. Imported rows are removed after each iteration so the table
+ * size stays constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IncomeImportBenchmark {
+
+    static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private ImportService importService;
+    private JdbcTemplate jdbcTemplate;
+    private AppUser user;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        importService = context.getBean(ImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        user = BenchmarkContext.seedUser(context, "bench-import", 0, 0);
+
+        StringBuilder content = new StringBuilder("name,amount,date,category,description\n");
+        for (int i = 0; i < ROWS; i++) {
+            content.append("Payment ").append(i).append(',')
+                    .append(100 + i % 900).append(".50,")
+                    .append(BenchmarkContext.TODAY.minusDays(i % 730)).append(',')
+                    .append(i % 3 == 0 ? "Income" : "Freelance").append(',')
+                    .append("Imported row ").append(i).append('\n');
+        }
+        csv = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteImported() {
+        jdbcTemplate.update("DELETE FROM income_monthly_rollup WHERE app_user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM income WHERE app_user_id = ?", user.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportResultResponse importIncomeCsv() throws IOException {
+        return importService.importIncome(new ByteArrayInputStream(csv), ImportFormat.CSV, user);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.budgettracker.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full MVC path for the subscription list: security filter chain, user resolution
+ * through UserArgumentResolver and the user cache, the service query and JSON
+ * serialization. The not-modified variant measures a revalidation with a current ETag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    private static final String GOOGLE_SUB = "bench-request";
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedUser(context, GOOGLE_SUB, 200, 12);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        etag = mockMvc.perform(listRequest()).andReturn().getResponse().getHeader("ETag");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String listSubscriptions() throws Exception {
+        return mockMvc.perform(listRequest()).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public int listSubscriptionsNotModified() throws Exception {
+        return mockMvc.perform(listRequest().header("If-None-Match", etag)).andReturn().getResponse().getStatus();
+    }
+
+    private static MockHttpServletRequestBuilder listRequest() {
+        return get("/api/subscriptions").with(jwt().jwt(jwt -> jwt.subject(GOOGLE_SUB)));
+    }
+}
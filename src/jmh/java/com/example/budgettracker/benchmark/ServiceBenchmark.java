@@ -0,0 +1,66 @@
+package com.example.budgettracker.benchmark;
+
+import com.example.budgettracker.dto.CategoryResponse;
+import com.example.budgettracker.dto.ProjectionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.service.CategoryService;
+import com.example.budgettracker.service.IncomeService;
+import com.example.budgettracker.service.ProjectionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths behind the dashboard and category list, against H2 with a seeded user
+ * (200 subscriptions, 36 months of income).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CategoryService categoryService;
+    private IncomeService incomeService;
+    private ProjectionService projectionService;
+    private AppUser user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        categoryService = context.getBean(CategoryService.class);
+        incomeService = context.getBean(IncomeService.class);
+        projectionService = context.getBean(ProjectionService.class);
+        user = BenchmarkContext.seedUser(context, "bench-service", 200, 36);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CategoryResponse> categoriesWithCounts() {
+        return categoryService.getCategoriesWithCountsForUser(user);
+    }
+
+    // Partial months at both ends, so both the rollup and the raw-row paths run
+    @Benchmark
+    public BigDecimal totalIncomeForTwoYears() {
+        return incomeService.getTotalIncomeForPeriod(user, BenchmarkContext.TODAY.minusYears(2).plusDays(3),
+                BenchmarkContext.TODAY);
+    }
+
+    @Benchmark
+    public ProjectionResponse projectionForYear() {
+        LocalDate from = BenchmarkContext.TODAY;
+        return projectionService.getProjection(user, from, from.plusYears(1));
+    }
+}
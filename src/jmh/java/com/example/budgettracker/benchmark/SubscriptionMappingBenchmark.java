@@ -0,0 +1,51 @@
+package com.example.budgettracker.benchmark;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping for one list page, without Spring or a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<Subscription> page;
+
+    @Setup
+    public void setUp() {
+        AppUser user = TestDataBuilder.createTestUser();
+        Category category = TestDataBuilder.createTestCategory(1L, "Streaming", user);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(TestDataBuilder.createTestSubscription((long) i, "Subscription " + i,
+                    BigDecimal.valueOf(999 + i, 2), Period.values()[i % Period.values().length], user, category));
+        }
+    }
+
+    @Benchmark
+    public List<SubscriptionResponse> fromEntity() {
+        List<SubscriptionResponse> responses = new ArrayList<>(page.size());
+        for (Subscription subscription : page) {
+            responses.add(SubscriptionResponse.fromEntity(subscription));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.model.AppUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of users keyed by Google subject.
+ * Entries are stored as detached snapshots and every read returns a fresh copy,
+ * so concurrent requests never share a mutable entity instance.
+ */
+@Component
+public class AppUserCache {
+
+    static final String CACHE_NAME = "appUsers";
+
+    private final Cache<String, AppUser> cache;
+    // Bumped on every eviction so a load that raced with a write is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AppUserCache(@Value("${app.cache.users.maximum-size:10000}") long maximumSize,
+                        @Value("${app.cache.users.ttl:PT5M}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * The loader runs outside the cache's compute lock: loading may flush pending writes,
+     * which re-enter {@link #evict} through the entity listener.
+     */
+    public Optional<AppUser> get(String googleSub, Function<String, Optional<AppUser>> loader) {
+        AppUser cached = cache.getIfPresent(googleSub);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long generation = invalidations.get();
+        Optional<AppUser> loaded = loader.apply(googleSub).map(AppUserCache::copyOf);
+        loaded.ifPresent(user -> {
+            if (invalidations.get() == generation) {
+                cache.put(googleSub, copyOf(user));
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Evicts the entry now and, when called inside a transaction, again after commit
+     * so a concurrent reader cannot re-populate the cache with the pre-commit row.
+     */
+    public void evict(String googleSub) {
+        if (googleSub == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        cache.invalidate(googleSub);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    cache.invalidate(googleSub);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static AppUser copyOf(AppUser source) {
+        AppUser copy = new AppUser(source.getGoogleSub(), source.getFullName(), source.getEmail(), source.getPictureUrl());
+        copy.setId(source.getId());
+        copy.setCurrency(source.getCurrency());
+        copy.setDefaultCategoriesVersion(source.getDefaultCategoriesVersion());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+}
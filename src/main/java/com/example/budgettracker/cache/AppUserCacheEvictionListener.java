@@ -0,0 +1,28 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.model.AppUser;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts cached users whenever their row is inserted, updated or deleted,
+ * regardless of which code path issued the write.
+ */
+public class AppUserCacheEvictionListener {
+
+    private final ObjectProvider<AppUserCache> appUserCache;
+
+    public AppUserCacheEvictionListener(ObjectProvider<AppUserCache> appUserCache) {
+        this.appUserCache = appUserCache;
+    }
+
+    // PrePersist rather than PostPersist: with sequence ids the INSERT is deferred to flush
+    @PrePersist
+    @PostUpdate
+    @PostRemove
+    public void evict(AppUser user) {
+        appUserCache.ifAvailable(cache -> cache.evict(user.getGoogleSub()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-user snapshot of categories, indexed by id and by lower-cased name, so write paths
+ * resolve categories without a query. Snapshots are loaded whole on a miss, evicted by
+ * {@link CategoryCacheEvictionListener} on every category write, and expire after a TTL
+ * to bound staleness from writes on other nodes. Reads return detached copies.
+ */
+@Component
+public class CategoryCache {
+
+    static final String CACHE_NAME = "userCategories";
+
+    private record Snapshot(Map<Long, Category> byId, Map<String, Category> byName) {
+
+        static Snapshot of(List<Category> categories) {
+            Map<Long, Category> byId = new HashMap<>();
+            Map<String, Category> byName = new HashMap<>();
+            for (Category category : categories) {
+                Category copy = copyOf(category, null);
+                byId.put(copy.getId(), copy);
+                byName.put(key(copy.getName()), copy);
+            }
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byName));
+        }
+    }
+
+    private final Cache<Long, Snapshot> cache;
+    // Bumped on every eviction so a load that raced with a write is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CategoryCache(@Value("${app.cache.categories.maximum-size:10000}") long maximumSize,
+                         @Value("${app.cache.categories.ttl:PT5M}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<Category> findById(AppUser user, Long categoryId, Function<AppUser, List<Category>> loader) {
+        return Optional.ofNullable(snapshot(user, loader).byId().get(categoryId)).map(c -> copyOf(c, user));
+    }
+
+    /**
+     * Case-insensitive, matching the lower(name) unique index.
+     */
+    public Optional<Category> findByName(AppUser user, String name, Function<AppUser, List<Category>> loader) {
+        return Optional.ofNullable(snapshot(user, loader).byName().get(key(name))).map(c -> copyOf(c, user));
+    }
+
+    /**
+     * Evicts the user's snapshot now and again when the surrounding transaction completes,
+     * so neither a concurrent reader nor a rollback leaves pre-commit rows cached.
+     */
+    public void evict(Long appUserId) {
+        if (appUserId == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        cache.invalidate(appUserId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    cache.invalidate(appUserId);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // The loader runs outside the cache's compute lock: it may flush writes that re-enter evict
+    private Snapshot snapshot(AppUser user, Function<AppUser, List<Category>> loader) {
+        Snapshot cached = cache.getIfPresent(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        Snapshot loaded = Snapshot.of(loader.apply(user));
+        if (invalidations.get() == generation) {
+            cache.put(user.getId(), loaded);
+        }
+        return loaded;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Category copyOf(Category source, AppUser user) {
+        Category copy = new Category(source.getName(), user);
+        copy.setId(source.getId());
+        copy.setLocked(source.isLocked());
+        copy.setCategoryType(source.getCategoryType());
+        copy.setVersion(source.getVersion());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
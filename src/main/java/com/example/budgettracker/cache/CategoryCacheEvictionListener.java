@@ -0,0 +1,30 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.model.Category;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts the owner's cached categories whenever a category is created, renamed or
+ * deleted through JPA. Native inserts are evicted explicitly by the code that issues them.
+ */
+public class CategoryCacheEvictionListener {
+
+    private final ObjectProvider<CategoryCache> categoryCache;
+
+    public CategoryCacheEvictionListener(ObjectProvider<CategoryCache> categoryCache) {
+        this.categoryCache = categoryCache;
+    }
+
+    // PrePersist rather than PostPersist: with sequence ids the INSERT is deferred to flush
+    @PrePersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Category category) {
+        if (category.getAppUser() != null) {
+            categoryCache.ifAvailable(cache -> cache.evict(category.getAppUser().getId()));
+        }
+    }
+}
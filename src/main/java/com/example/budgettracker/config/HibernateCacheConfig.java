@@ -0,0 +1,85 @@
+package com.example.budgettracker.config;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache, backed by Caffeine through JCache.
+ * Regions are declared here rather than in a provider config file so their sizes and
+ * TTLs come from {@code app.cache.hibernate.*}, and each region reports the same
+ * cache.* metrics as the application caches. A region Hibernate asks for that is not
+ * declared here fails startup instead of silently getting an unbounded cache.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.hibernate.categories.maximum-size:50000}") long categoriesMaximumSize,
+            @Value("${app.cache.hibernate.categories.ttl:PT30M}") Duration categoriesTtl,
+            @Value("${app.cache.hibernate.users.maximum-size:10000}") long usersMaximumSize,
+            @Value("${app.cache.hibernate.users.ttl:PT30M}") Duration usersTtl,
+            @Value("${app.cache.hibernate.query-results.maximum-size:10000}") long queryResultsMaximumSize,
+            @Value("${app.cache.hibernate.query-results.ttl:PT10M}") Duration queryResultsTtl,
+            MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of our own: the provider shares managers by URI, and each application
+        // context (several in the test suite) must start from empty regions
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("budgettracker-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, meterRegistry, Category.CACHE_REGION, categoriesMaximumSize, categoriesTtl);
+        createRegion(cacheManager, meterRegistry, AppUser.CACHE_REGION, usersMaximumSize, usersTtl);
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queryResultsMaximumSize, queryResultsTtl);
+        // One small entry per table; must never expire ahead of the query results it guards
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                     String name, Long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate already stores disassembled, immutable entries; copying them buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(name, configuration));
+    }
+}
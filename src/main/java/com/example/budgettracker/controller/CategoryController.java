@@ -4,18 +4,23 @@ import com.example.budgettracker.dto.CategoryResponse;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.CategoryType;
 import com.example.budgettracker.service.CategoryService;
+import com.example.budgettracker.service.DataRevisionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,28 +30,39 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final DataRevisionService dataRevisionService;
 
     @GetMapping
     @Operation(summary = "Get categories", description = "Retrieves categories for the authenticated user, optionally filtered by type")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categories retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Categories unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Only one of startDate and endDate given, or endDate before startDate"),
             @ApiResponse(responseCode = "401", description = "User not authenticated")
     })
     public ResponseEntity<List<CategoryResponse>> getCategories(
             @Parameter(hidden = true) AppUser appUser,
-            @RequestParam(required = false) String type) {
-        
-        if ("income".equalsIgnoreCase(type)) {
-            List<CategoryResponse> response = categoryService.getCategoriesByTypeForUser(appUser, CategoryType.INCOME);
-            return ResponseEntity.ok(response);
-        } else if ("subscription".equalsIgnoreCase(type)) {
-            List<CategoryResponse> response = categoryService.getCategoriesByTypeForUser(appUser, CategoryType.SUBSCRIPTION);
-            return ResponseEntity.ok(response);
-        } else {
-            // Default behavior - all categories with subscription counts
-            List<CategoryResponse> response = categoryService.getCategoriesWithCountsForUser(appUser);
-            return ResponseEntity.ok(response);
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Income categories: start of the window for incomeCount/incomeTotal (all time when omitted)")
+            @RequestParam(required = false) LocalDate startDate,
+            @Parameter(description = "Income categories: end of the window, inclusive")
+            @RequestParam(required = false) LocalDate endDate,
+            WebRequest request) {
+
+        if ((startDate == null) != (endDate == null) || (startDate != null && endDate.isBefore(startDate))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "startDate and endDate must be given together, with endDate not before startDate");
         }
+        return CollectionETags.respond(request, appUser, dataRevisionService.currentRevision(appUser), () -> {
+            if ("income".equalsIgnoreCase(type)) {
+                return categoryService.getIncomeCategoriesWithTotals(appUser, startDate, endDate);
+            } else if ("subscription".equalsIgnoreCase(type)) {
+                return categoryService.getCategoriesByTypeForUser(appUser, CategoryType.SUBSCRIPTION);
+            } else {
+                // Default behavior - all categories with subscription counts
+                return categoryService.getCategoriesWithCountsForUser(appUser);
+            }
+        });
     }
 
 
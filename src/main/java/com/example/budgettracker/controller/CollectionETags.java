@@ -0,0 +1,32 @@
+package com.example.budgettracker.controller;
+
+import com.example.budgettracker.model.AppUser;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for per-user collections. The ETag is the user's data revision, so a
+ * matching If-None-Match is answered with 304 before the list query runs. Responses are
+ * marked private/no-cache: browsers keep them but revalidate on every use.
+ */
+final class CollectionETags {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private CollectionETags() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, AppUser user, long revision, Supplier<T> body) {
+        // The user id keeps a shared browser from matching another account's cached copy
+        String etag = "\"" + user.getId() + "-" + revision + "\"";
+        // checkNotModified also writes the ETag header, so the entities below must not repeat it
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
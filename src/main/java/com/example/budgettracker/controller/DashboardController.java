@@ -0,0 +1,88 @@
+package com.example.budgettracker.controller;
+
+import com.example.budgettracker.dto.DashboardMetricsResponse;
+import com.example.budgettracker.dto.ProjectedOccurrence;
+import com.example.budgettracker.dto.ProjectionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.service.DashboardService;
+import com.example.budgettracker.service.ProjectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Tag(name = "Dashboard", description = "Dashboard metrics and analytics")
+public class DashboardController {
+
+    private static final int MAX_PROJECTION_YEARS = 10;
+    private static final int MAX_OCCURRENCES = 1000;
+
+    private final DashboardService dashboardService;
+    private final ProjectionService projectionService;
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Get dashboard metrics", description = "Retrieves aggregated spend, upcoming bills, recent activity and monthly income for the authenticated user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<DashboardMetricsResponse> getMetrics(@Parameter(hidden = true) AppUser appUser) {
+        return ResponseEntity.ok(dashboardService.getMetricsForUser(appUser));
+    }
+
+    @GetMapping("/projection")
+    @Operation(summary = "Project income and spend", description = "Totals recurring income and active subscriptions expanded over the date range (inclusive, at most 10 years)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projection calculated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<ProjectionResponse> getProjection(
+            @Parameter(hidden = true) AppUser appUser,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        validateRange(startDate, endDate);
+        return ResponseEntity.ok(projectionService.getProjection(appUser, startDate, endDate));
+    }
+
+    @GetMapping("/projection/occurrences")
+    @Operation(summary = "List projected occurrences", description = "Dated income and subscription occurrences within the range in chronological order, capped at the limit (max 1000)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occurrences retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<List<ProjectedOccurrence>> getProjectedOccurrences(
+            @Parameter(hidden = true) AppUser appUser,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate,
+            @RequestParam(defaultValue = "200") int limit) {
+        validateRange(startDate, endDate);
+        List<ProjectedOccurrence> occurrences = projectionService.projectOccurrences(appUser, startDate, endDate)
+                .limit(Math.max(1, Math.min(limit, MAX_OCCURRENCES)))
+                .toList();
+        return ResponseEntity.ok(occurrences);
+    }
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate) || endDate.isAfter(startDate.plusYears(MAX_PROJECTION_YEARS))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "End date must not be before start date or more than " + MAX_PROJECTION_YEARS + " years after it");
+        }
+    }
+}
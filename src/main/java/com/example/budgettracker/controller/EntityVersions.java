@@ -0,0 +1,46 @@
+package com.example.budgettracker.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Maps entity versions to strong ETags ("3") and back. PUT, PATCH and DELETE accept
+ * the tag in If-Match; the services compare it with the loaded version, and the
+ * versioned UPDATE/DELETE catches writes that land in between.
+ */
+final class EntityVersions {
+
+    private static final long NO_VERSION = -1;
+
+    private EntityVersions() {
+    }
+
+    // Null, and so no header, only for an entity that was never persisted
+    static String etag(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * The version required by an If-Match header, or null when the write is unconditional
+     * (no header, or "*", which any existing entity matches).
+     */
+    static Long expected(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.indexOf(',') >= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must name a single entity tag");
+        }
+        try {
+            // Weak tags never match under the strong comparison If-Match requires
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 2) {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            }
+        } catch (NumberFormatException ex) {
+            // Not one of our tags; fall through
+        }
+        // A tag we never issued cannot match any version
+        return NO_VERSION;
+    }
+}
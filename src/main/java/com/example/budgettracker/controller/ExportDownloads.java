@@ -0,0 +1,36 @@
+package com.example.budgettracker.controller;
+
+import com.example.budgettracker.service.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+
+/**
+ * Streams an export from an async task with its own timeout, so long downloads do not
+ * need a longer async timeout for every other handler. The body is written straight to
+ * the response inside the task: a StreamingResponseBody returned from it would be
+ * streamed in a second async cycle under the default timeout.
+ */
+final class ExportDownloads {
+
+    static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+    private ExportDownloads() {
+    }
+
+    static WebAsyncTask<Void> stream(HttpServletResponse response, ExportFormat format, String basename,
+                                     StreamingResponseBody body) {
+        response.setContentType(format.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(basename + "." + format.getExtension()).build().toString());
+        return new WebAsyncTask<>(TIMEOUT.toMillis(), () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
@@ -1,27 +1,47 @@
 package com.example.budgettracker.controller;
 
+import com.example.budgettracker.dto.CursorPage;
+import com.example.budgettracker.dto.ImportResultResponse;
 import com.example.budgettracker.dto.IncomeRequest;
 import com.example.budgettracker.dto.IncomeResponse;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Income;
+import com.example.budgettracker.service.DataRevisionService;
+import com.example.budgettracker.service.ExportFormat;
+import com.example.budgettracker.service.ExportService;
+import com.example.budgettracker.service.ImportFormat;
+import com.example.budgettracker.service.ImportService;
 import com.example.budgettracker.service.IncomeService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,11 +52,17 @@ import java.util.stream.Collectors;
 public class IncomeController {
 
     private final IncomeService incomeService;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final DataRevisionService dataRevisionService;
+
+    private static final int MAX_MONTHLY_TOTALS_SPAN = 120;
 
     @GetMapping
     @Operation(summary = "Get all income entries for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Income entries retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Income entries unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "User not authenticated")
     })
     public ResponseEntity<Page<IncomeResponse>> getIncomeEntries(
@@ -44,15 +70,32 @@ public class IncomeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "incomeDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest request) {
 
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<Income> incomePage = incomeService.getIncomeForUser(user, pageable);
-        Page<IncomeResponse> responsePage = incomePage.map(IncomeResponse::fromEntity);
+        return CollectionETags.respond(request, user, dataRevisionService.currentRevision(user),
+                () -> incomeService.getIncomeForUser(user, pageable));
+    }
 
-        return ResponseEntity.ok(responsePage);
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get income entries by cursor", description = "Newest first, keyset pagination; pass an empty cursor for the first page and nextCursor for the following ones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Income entries retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Income entries unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<CursorPage<IncomeResponse>> getIncomeEntriesByCursor(
+            @Parameter(description = "Authenticated user", hidden = true) AppUser user,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+
+        return CollectionETags.respond(request, user, dataRevisionService.currentRevision(user),
+                () -> incomeService.getIncomeForUser(user, cursor, size));
     }
 
     @PostMapping
@@ -69,7 +112,9 @@ public class IncomeController {
         Income savedIncome = incomeService.saveIncomeForUser(incomeRequest, user);
         IncomeResponse response = IncomeResponse.fromEntity(savedIncome);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EntityVersions.etag(savedIncome.getVersion()))
+                .body(response);
     }
 
     @PutMapping("/{id}")
@@ -78,17 +123,44 @@ public class IncomeController {
             @ApiResponse(responseCode = "200", description = "Income entry updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
-            @ApiResponse(responseCode = "404", description = "Income entry not found")
+            @ApiResponse(responseCode = "404", description = "Income entry not found"),
+            @ApiResponse(responseCode = "409", description = "Income entry was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Income entry changed since the version in If-Match")
     })
     public ResponseEntity<IncomeResponse> updateIncome(
             @Parameter(description = "Authenticated user", hidden = true) AppUser user,
             @PathVariable Long id,
-            @Valid @RequestBody IncomeRequest incomeRequest) {
+            @Valid @RequestBody IncomeRequest incomeRequest,
+            @Parameter(description = "ETag of the version being replaced") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Income updatedIncome = incomeService.updateIncomeForUser(id, incomeRequest, user);
+        Income updatedIncome = incomeService.updateIncomeForUser(id, incomeRequest, user, EntityVersions.expected(ifMatch));
         IncomeResponse response = IncomeResponse.fromEntity(updatedIncome);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(updatedIncome.getVersion()))
+                .body(response);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update an income entry", description = "JSON merge patch (RFC 7386): only the supplied fields are validated and changed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Income entry updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid patch or field values"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Income entry not found"),
+            @ApiResponse(responseCode = "409", description = "Income entry was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Income entry changed since the version in If-Match")
+    })
+    public ResponseEntity<IncomeResponse> patchIncome(
+            @Parameter(description = "Authenticated user", hidden = true) AppUser user,
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "ETag of the version being patched") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Income patchedIncome = incomeService.patchIncomeForUser(id, patch, user, EntityVersions.expected(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(patchedIncome.getVersion()))
+                .body(IncomeResponse.fromEntity(patchedIncome));
     }
 
     @DeleteMapping("/{id}")
@@ -96,13 +168,16 @@ public class IncomeController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Income entry deleted successfully"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
-            @ApiResponse(responseCode = "404", description = "Income entry not found")
+            @ApiResponse(responseCode = "404", description = "Income entry not found"),
+            @ApiResponse(responseCode = "409", description = "Income entry was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Income entry changed since the version in If-Match")
     })
     public ResponseEntity<Void> deleteIncome(
             @Parameter(description = "Authenticated user", hidden = true) AppUser user,
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the version being deleted") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        incomeService.deleteIncomeForUser(id, user);
+        incomeService.deleteIncomeForUser(id, user, EntityVersions.expected(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
@@ -139,4 +214,55 @@ public class IncomeController {
         BigDecimal totalIncome = incomeService.getTotalIncomeForPeriod(user, startDate, endDate);
         return ResponseEntity.ok(totalIncome);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/monthly-totals")
+    @Operation(summary = "Get income per month", description = "Monthly income totals between two months (inclusive, e.g. 2024-01), oldest first; months without income are zero")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Monthly totals calculated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month range"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<List<MonthlyIncomeTotal>> getMonthlyTotals(
+            @Parameter(description = "Authenticated user", hidden = true) AppUser user,
+            @RequestParam YearMonth from,
+            @RequestParam YearMonth to) {
+
+        if (from.isAfter(to) || ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHLY_TOTALS_SPAN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Month range must be ordered and span at most " + MAX_MONTHLY_TOTALS_SPAN + " months");
+        }
+        return ResponseEntity.ok(incomeService.getMonthlyTotals(user, from, to));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import income entries", description = "Imports a CSV file (name, amount, date, period, description, category) or an OFX/QFX bank statement, chosen by file extension; invalid rows are reported, not fatal")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed; see the per-row report"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<ImportResultResponse> importIncome(
+            @Parameter(description = "Authenticated user", hidden = true) AppUser user,
+            @Parameter(description = "CSV or OFX file") @RequestParam("file") MultipartFile file) throws IOException {
+
+        ImportFormat format = ImportFormat.fromFilename(file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importIncome(input, format, user));
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all income entries", description = "Streams every income entry, newest first, as CSV (default) or NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public WebAsyncTask<Void> exportIncome(
+            @Parameter(description = "Authenticated user", hidden = true) AppUser user,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return ExportDownloads.stream(response, exportFormat, "income",
+                output -> exportService.exportIncome(user, exportFormat, output));
+    }
+}
@@ -1,25 +1,140 @@
 package com.example.budgettracker.controller;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Serves the React shell for client-side routes. The shell is read and gzipped once at
+ * startup, so each hit only writes a cached array. It is revalidated on every navigation
+ * (no-cache + ETag) because it names the hashed bundles under /assets, which are cached
+ * as immutable in WebConfig. Set {@code app.spa.reload-index=true} in development to
+ * re-read the file on each request after a UI rebuild.
+ */
 @Controller
+@Slf4j
 public class SpaController {
 
+    private static final String INDEX_LOCATION = "static/index.html";
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private record Shell(byte[] identity, String identityETag, byte[] gzip, String gzipETag) {
+    }
+
+    private final boolean reload;
+    private final Shell shell;
+
+    public SpaController(@Value("${app.spa.reload-index:false}") boolean reload) {
+        this.reload = reload;
+        this.shell = reload ? null : load();
+    }
+
     // Forward all non-API routes to index.html for React Router
     // Note: /oauth-complete is handled by OAuthController, not SPA
     @GetMapping(value = {"/", "/login", "/subscriptions", "/bills", "/income", "/settings", "/{path:^(?!api|oauth2|oauth-complete).*$}"})
-    public ResponseEntity<byte[]> forward() throws IOException {
-        Resource resource = new ClassPathResource("static/index.html");
-        byte[] content = resource.getInputStream().readAllBytes();
-        return ResponseEntity.ok()
+    public ResponseEntity<byte[]> forward(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          WebRequest request) {
+        Shell current = reload ? load() : shell;
+        if (current == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // checkNotModified writes the ETag header itself
+        if (request.checkNotModified(gzip ? current.gzipETag() : current.identityETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.TEXT_HTML)
-                .body(content);
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(current.gzip());
+        }
+        return response.body(current.identity());
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip. Honours q-values, so "gzip;q=0"
+     * refuses it; a wildcard applies when gzip is not listed by name.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        Double effective = gzip != null ? gzip : wildcard;
+        return effective != null && effective > 0;
+    }
+
+    // A malformed q-value counts as a refusal rather than a guess
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static Shell load() {
+        Resource resource = new ClassPathResource(INDEX_LOCATION);
+        if (!resource.exists()) {
+            log.warn("{} not found on the classpath; client routes will return 404", INDEX_LOCATION);
+            return null;
+        }
+        try (InputStream input = resource.getInputStream()) {
+            byte[] identity = input.readAllBytes();
+            String hash = DigestUtils.md5DigestAsHex(identity);
+            return new Shell(identity, "\"" + hash + "\"", gzip(identity), "\"" + hash + "-gzip\"");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read " + INDEX_LOCATION, ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream output = new GZIPOutputStream(buffer)) {
+            output.write(content);
+        }
+        return buffer.toByteArray();
     }
-} 
\ No newline at end of file
+}
@@ -1,24 +1,44 @@
 package com.example.budgettracker.controller;
 
+import com.example.budgettracker.dto.BillCalendarResponse;
+import com.example.budgettracker.dto.CursorPage;
+import com.example.budgettracker.dto.ImportResultResponse;
 import com.example.budgettracker.dto.SubscriptionRequest;
 import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.dto.UpcomingBillResponse;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.service.DataRevisionService;
+import com.example.budgettracker.service.ExportFormat;
+import com.example.budgettracker.service.ExportService;
+import com.example.budgettracker.service.ImportService;
 import com.example.budgettracker.service.SubscriptionService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.List;
 
 
 @RestController
@@ -27,6 +47,9 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Subscriptions", description = "Subscription management operations")
 public class SubscriptionController {
     private final SubscriptionService subscriptionService;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final DataRevisionService dataRevisionService;
 
     @PostMapping
     @Operation(summary = "Create a new subscription", description = "Creates a new subscription for the authenticated user")
@@ -40,6 +63,7 @@ public class SubscriptionController {
             @Parameter(hidden = true) AppUser appUser) {
         Subscription saved = subscriptionService.saveSubscriptionForUser(subscriptionRequest, appUser);
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EntityVersions.etag(saved.getVersion()))
                 .body(SubscriptionResponse.fromEntity(saved));
     }
 
@@ -49,14 +73,40 @@ public class SubscriptionController {
             @ApiResponse(responseCode = "200", description = "Subscription updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
-            @ApiResponse(responseCode = "404", description = "Subscription not found")
+            @ApiResponse(responseCode = "404", description = "Subscription not found"),
+            @ApiResponse(responseCode = "409", description = "Subscription was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Subscription changed since the version in If-Match")
     })
     public ResponseEntity<SubscriptionResponse> updateSubscription(
             @Parameter(description = "Subscription ID") @PathVariable Long id,
             @RequestBody(description = "Updated subscription details", required = true) @Valid @org.springframework.web.bind.annotation.RequestBody SubscriptionRequest subscriptionRequest,
+            @Parameter(description = "ETag of the version being replaced") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(hidden = true) AppUser appUser) {
+        Subscription updated = subscriptionService.updateSubscriptionForUser(id, subscriptionRequest, appUser, EntityVersions.expected(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(updated.getVersion()))
+                .body(SubscriptionResponse.fromEntity(updated));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update a subscription", description = "JSON merge patch (RFC 7386): only the supplied fields are validated and changed, e.g. {\"active\": false} to pause")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscription updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid patch or field values"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found"),
+            @ApiResponse(responseCode = "409", description = "Subscription was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Subscription changed since the version in If-Match")
+    })
+    public ResponseEntity<SubscriptionResponse> patchSubscription(
+            @Parameter(description = "Subscription ID") @PathVariable Long id,
+            @RequestBody(description = "Fields to change", required = true) @org.springframework.web.bind.annotation.RequestBody JsonNode patch,
+            @Parameter(description = "ETag of the version being patched") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(hidden = true) AppUser appUser) {
-        Subscription updated = subscriptionService.updateSubscriptionForUser(id, subscriptionRequest, appUser);
-        return ResponseEntity.ok(SubscriptionResponse.fromEntity(updated));
+        Subscription patched = subscriptionService.patchSubscriptionForUser(id, patch, appUser, EntityVersions.expected(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(patched.getVersion()))
+                .body(SubscriptionResponse.fromEntity(patched));
     }
 
     @DeleteMapping("/{id}")
@@ -64,12 +114,14 @@ public class SubscriptionController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Subscription deleted successfully"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
-            @ApiResponse(responseCode = "404", description = "Subscription not found")
+            @ApiResponse(responseCode = "404", description = "Subscription not found"),
+            @ApiResponse(responseCode = "412", description = "Subscription changed since the version in If-Match")
     })
     public ResponseEntity<Void> deleteSubscription(
             @Parameter(description = "Subscription ID") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being deleted") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(hidden = true) AppUser appUser) {
-        subscriptionService.deleteSubscriptionForUser(id, appUser);
+        subscriptionService.deleteSubscriptionForUser(id, appUser, EntityVersions.expected(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
@@ -77,13 +129,84 @@ public class SubscriptionController {
     @Operation(summary = "List subscriptions", description = "Retrieves a paginated list of subscriptions for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Subscriptions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Subscriptions unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "User not authenticated")
     })
     public ResponseEntity<Page<SubscriptionResponse>> listSubscriptions(
             @Parameter(hidden = true) AppUser appUser,
-            @Parameter(description = "Pagination parameters") @PageableDefault(size = 20, sort = "name") Pageable pageable) {
-        Page<SubscriptionResponse> response = subscriptionService.getSubscriptionsForUser(appUser, pageable)
-                .map(SubscriptionResponse::fromEntity);
-        return ResponseEntity.ok(response);
+            @Parameter(description = "Pagination parameters") @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        return CollectionETags.respond(request, appUser, dataRevisionService.currentRevision(appUser),
+                () -> subscriptionService.getSubscriptionsForUser(appUser, pageable));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "List subscriptions by cursor", description = "Retrieves subscriptions ordered by name using keyset pagination; pass an empty cursor for the first page and nextCursor for the following ones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscriptions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Subscriptions unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<CursorPage<SubscriptionResponse>> listSubscriptionsByCursor(
+            @Parameter(hidden = true) AppUser appUser,
+            @Parameter(description = "Opaque cursor from the previous page") @RequestParam String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return CollectionETags.respond(request, appUser, dataRevisionService.currentRevision(appUser),
+                () -> subscriptionService.getSubscriptionsForUser(appUser, cursor, size));
+    }
+
+    @GetMapping("/upcoming")
+    @Operation(summary = "List upcoming bills", description = "Bills of active subscriptions due from today through the next N days (max 366), with recurring subscriptions expanded, ordered by due date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upcoming bills retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<List<UpcomingBillResponse>> getUpcomingBills(
+            @Parameter(hidden = true) AppUser appUser,
+            @Parameter(description = "Number of days ahead to include") @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(subscriptionService.getUpcomingBills(appUser, days));
+    }
+
+    @GetMapping("/calendar")
+    @Operation(summary = "Get bill calendar", description = "Bills of active subscriptions in the given month (e.g. 2024-05, defaults to the current month), grouped by day")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendar retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<BillCalendarResponse> getBillCalendar(
+            @Parameter(hidden = true) AppUser appUser,
+            @Parameter(description = "Month in yyyy-MM format") @RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok(subscriptionService.getBillCalendar(appUser, month != null ? month : YearMonth.now()));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import subscriptions", description = "Imports subscriptions from a CSV file with a header row (name, price, period, nextBillingDate, category, active); invalid rows are reported, not fatal")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed; see the per-row report"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<ImportResultResponse> importSubscriptions(
+            @Parameter(hidden = true) AppUser appUser,
+            @Parameter(description = "CSV file") @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importSubscriptions(input, appUser));
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all subscriptions", description = "Streams every subscription, ordered by name, as CSV (default) or NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public WebAsyncTask<Void> exportSubscriptions(
+            @Parameter(hidden = true) AppUser appUser,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return ExportDownloads.stream(response, exportFormat, "subscriptions",
+                output -> exportService.exportSubscriptions(appUser, exportFormat, output));
     }
 }
@@ -1,7 +1,7 @@
 package com.example.budgettracker.controller;
 
 import com.example.budgettracker.model.AppUser;
-import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.service.AppUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,7 +19,7 @@ import java.util.Map;
 @Tag(name = "User", description = "User profile and settings operations")
 public class UserController {
 
-    private final AppUserRepository appUserRepository;
+    private final AppUserService appUserService;
 
     @GetMapping("/currency")
     @Operation(summary = "Get user currency", description = "Retrieves the currency preference for the authenticated user")
@@ -47,8 +47,7 @@ public class UserController {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid currency"));
         }
 
-        appUser.setCurrency(currency);
-        appUserRepository.save(appUser);
+        appUserService.updateCurrency(appUser, currency);
         return ResponseEntity.ok(Map.of("message", "Currency updated successfully"));
     }
 }
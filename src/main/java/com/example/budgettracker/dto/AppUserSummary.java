@@ -0,0 +1,19 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Profile columns only; the all-args constructor backs the JPQL constructor expression
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppUserSummary {
+
+    private Long id;
+    private String googleSub;
+    private String email;
+    private String fullName;
+    private String pictureUrl;
+    private String currency;
+}
@@ -0,0 +1,28 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+public class BillCalendarResponse {
+
+    private YearMonth month;
+    private BigDecimal total;
+    // Only days with at least one bill, in date order
+    private List<Day> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private BigDecimal total;
+        private List<UpcomingBillResponse> bills;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryIncomeTotal {
+
+    // Null for uncategorized income
+    private Long categoryId;
+    private Long count;
+    private BigDecimal total;
+
+    public CategoryIncomeTotal plus(CategoryIncomeTotal other) {
+        return new CategoryIncomeTotal(categoryId, count + other.count, total.add(other.total));
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.budgettracker.dto;
 
 import com.example.budgettracker.model.Category;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.util.Set;
 
 @Data
@@ -13,6 +15,12 @@ public class CategoryResponse {
     private boolean locked;
     private boolean reserved;
     private long subscriptionCount;
+
+    // Income categories only: entries and their sum within the requested window
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long incomeCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal incomeTotal;
     
     // Reserved category names that cannot be modified
     private static final Set<String> RESERVED_NAMES = Set.of("Uncategorized", "Other");
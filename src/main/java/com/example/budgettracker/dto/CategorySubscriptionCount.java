@@ -0,0 +1,15 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Stored active-subscription count of one category, read past the second-level cache
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySubscriptionCount {
+
+    private Long categoryId;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.example.budgettracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class DashboardMetricsResponse {
+
+    private BigDecimal totalMonthlySpend;
+    private long activeSubscriptions;
+    private long upcomingBillCount;
+    private LocalDate nextBillDate;
+    private BigDecimal nextBillAmount;
+    private BigDecimal monthlyIncome;
+    private List<SubscriptionResponse> upcomingBills;
+    private List<RecentActivityResponse> recentActivity;
+}
@@ -0,0 +1,16 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of a subscription row as it was removed; drives the category active-count adjustment
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedSubscription {
+
+    // Null when the subscription was uncategorized
+    private Long categoryId;
+    private boolean active;
+}
@@ -0,0 +1,28 @@
+package com.example.budgettracker.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportResultResponse {
+
+    // Keeps the summary bounded for very large files; failed still counts every rejected row
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private int imported;
+    private int skipped;
+    private int failed;
+    private List<ImportRowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportRowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.example.budgettracker.dto;
 
 import com.example.budgettracker.model.Income;
 import com.example.budgettracker.model.Period;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// The all-args constructor backs the JPQL constructor expressions in IncomeRepository
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class IncomeResponse {
 
     private Long id;
@@ -18,6 +23,7 @@ public class IncomeResponse {
     private String description;
     private Long categoryId;
     private String categoryName;
+    private Long version;
 
     public static IncomeResponse fromEntity(Income income) {
         IncomeResponse dto = new IncomeResponse();
@@ -31,6 +37,7 @@ public class IncomeResponse {
             dto.setCategoryId(income.getCategory().getId());
             dto.setCategoryName(income.getCategory().getName());
         }
+        dto.setVersion(income.getVersion());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyIncomeTotal {
+
+    private YearMonth month;
+    private BigDecimal total;
+
+    // Used by the JPQL constructor expression over rollup rows
+    public MonthlyIncomeTotal(LocalDate monthStart, BigDecimal total) {
+        this(YearMonth.from(monthStart), total);
+    }
+}
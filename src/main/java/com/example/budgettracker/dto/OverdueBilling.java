@@ -0,0 +1,20 @@
+package com.example.budgettracker.dto;
+
+import com.example.budgettracker.model.Period;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Read by the billing roll-forward job; the all-args constructor backs the JPQL constructor expression
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueBilling {
+
+    private Long id;
+    private Long appUserId;
+    private Period period;
+    private LocalDate nextBillingDate;
+}
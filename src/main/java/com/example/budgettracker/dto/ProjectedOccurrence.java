@@ -0,0 +1,22 @@
+package com.example.budgettracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectedOccurrence {
+
+    public enum Type { INCOME, SUBSCRIPTION }
+
+    private Type type;
+    private Long sourceId;
+    private String name;
+    private LocalDate date;
+    private BigDecimal amount;
+}
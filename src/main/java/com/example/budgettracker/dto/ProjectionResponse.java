@@ -0,0 +1,16 @@
+package com.example.budgettracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class ProjectionResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal projectedIncome;
+    private BigDecimal projectedSpend;
+    private BigDecimal net;
+}
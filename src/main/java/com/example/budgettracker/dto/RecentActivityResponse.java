@@ -0,0 +1,32 @@
+package com.example.budgettracker.dto;
+
+import com.example.budgettracker.model.Subscription;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RecentActivityResponse extends SubscriptionResponse {
+
+    private LocalDate lastBillingDate;
+    private long daysSinceLastBilling;
+
+    public static RecentActivityResponse fromEntity(Subscription subscription, LocalDate lastBillingDate, long daysSinceLastBilling) {
+        RecentActivityResponse dto = new RecentActivityResponse();
+        dto.setId(subscription.getId());
+        dto.setName(subscription.getName());
+        dto.setPrice(subscription.getPrice());
+        dto.setPeriod(subscription.getPeriod());
+        dto.setNextBillingDate(subscription.getNextBillingDate());
+        dto.setActive(subscription.isActive());
+        if (subscription.getCategory() != null) {
+            dto.setCategoryId(subscription.getCategory().getId());
+            dto.setCategoryName(subscription.getCategory().getName());
+        }
+        dto.setLastBillingDate(lastBillingDate);
+        dto.setDaysSinceLastBilling(daysSinceLastBilling);
+        return dto;
+    }
+}
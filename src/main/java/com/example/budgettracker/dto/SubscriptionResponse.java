@@ -2,12 +2,17 @@ package com.example.budgettracker.dto;
 
 import com.example.budgettracker.model.Period;
 import com.example.budgettracker.model.Subscription;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// The all-args constructor backs the JPQL constructor expressions in SubscriptionRepository
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class SubscriptionResponse {
 
     private Long id;
@@ -18,6 +23,7 @@ public class SubscriptionResponse {
     private boolean active;
     private Long categoryId;
     private String categoryName;
+    private Long version;
 
     public static SubscriptionResponse fromEntity(Subscription subscription) {
         SubscriptionResponse dto = new SubscriptionResponse();
@@ -31,6 +37,7 @@ public class SubscriptionResponse {
             dto.setCategoryId(subscription.getCategory().getId());
             dto.setCategoryName(subscription.getCategory().getName());
         }
+        dto.setVersion(subscription.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,30 @@
+package com.example.budgettracker.dto;
+
+import com.example.budgettracker.model.Subscription;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class UpcomingBillResponse extends SubscriptionResponse {
+
+    private LocalDate dueDate;
+
+    public static UpcomingBillResponse fromEntity(Subscription subscription, LocalDate dueDate) {
+        UpcomingBillResponse dto = new UpcomingBillResponse();
+        dto.setId(subscription.getId());
+        dto.setName(subscription.getName());
+        dto.setPrice(subscription.getPrice());
+        dto.setPeriod(subscription.getPeriod());
+        dto.setNextBillingDate(subscription.getNextBillingDate());
+        dto.setActive(subscription.isActive());
+        if (subscription.getCategory() != null) {
+            dto.setCategoryId(subscription.getCategory().getId());
+            dto.setCategoryName(subscription.getCategory().getName());
+        }
+        dto.setDueDate(dueDate);
+        return dto;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.budgettracker.exception;
+
+/**
+ * The client's If-Match version no longer matches the stored entity.
+ */
+public class StaleVersionException extends RuntimeException {
+
+    public StaleVersionException(String resourceType, Long resourceId, long expectedVersion) {
+        super(String.format("%s with ID %d has changed since version %d; reload it and retry",
+                resourceType, resourceId, expectedVersion));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.dto.OverdueBilling;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.service.DataRevisionService;
+import com.example.budgettracker.util.Recurrence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Advances the stored next billing date of active recurring subscriptions once it has
+ * passed, so the indexed upcoming-bill queries can trust the column. Runs on a schedule
+ * when {@code app.jobs.billing-roll-forward.enabled=true}, on one node at a time
+ * (guarded by {@link JobLockManager}), in id-ordered chunks with one transaction each.
+ * Each subscription moves to its first occurrence on or after today, computed from the
+ * stored date, so a Jan 31 monthly bill rolled in February continues from Feb 28/29.
+ * Dates are moved with bulk UPDATEs that leave the entity version alone, so a user edit
+ * or delete during the run neither fails the chunk nor is failed by it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.billing-roll-forward.enabled", havingValue = "true")
+@Slf4j
+public class BillingRollForwardJob {
+
+    static final String LOCK_NAME = "billing-roll-forward";
+    static final int CHUNK_SIZE = 500;
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final JobLockManager jobLockManager;
+    private final DataRevisionService dataRevisionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseFor;
+
+    public BillingRollForwardJob(SubscriptionRepository subscriptionRepository,
+                                 JobLockManager jobLockManager,
+                                 DataRevisionService dataRevisionService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.jobs.billing-roll-forward.lease:PT30M}") Duration leaseFor) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.jobLockManager = jobLockManager;
+        this.dataRevisionService = dataRevisionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseFor = leaseFor;
+    }
+
+    @Scheduled(cron = "${app.jobs.billing-roll-forward.cron:0 10 0 * * *}")
+    public void run() {
+        if (!jobLockManager.tryAcquire(LOCK_NAME, leaseFor)) {
+            return;
+        }
+        try {
+            rollForward(LocalDate.now());
+        } finally {
+            jobLockManager.release(LOCK_NAME);
+        }
+    }
+
+    public int rollForward(LocalDate today) {
+        long lastId = 0L;
+        int advanced = 0;
+        while (true) {
+            long afterId = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<OverdueBilling> overdue = subscriptionRepository.findOverdueAfterId(afterId, today, Limit.of(CHUNK_SIZE));
+                // One UPDATE per (current date, next date) pair; a chunk holds only a handful
+                Map<Move, List<Long>> moves = overdue.stream().collect(Collectors.groupingBy(
+                        o -> new Move(o.getNextBillingDate(), new Recurrence(o.getNextBillingDate(), o.getPeriod()).nextOnOrAfter(today)),
+                        Collectors.mapping(OverdueBilling::getId, Collectors.toList())));
+                LocalDateTime now = LocalDateTime.now();
+                int updated = moves.entrySet().stream()
+                        .mapToInt(e -> subscriptionRepository.advanceNextBillingDate(e.getValue(), e.getKey().from(), e.getKey().to(), now))
+                        .sum();
+                if (updated > 0) {
+                    dataRevisionService.markChanged(overdue.stream().map(OverdueBilling::getAppUserId).collect(Collectors.toSet()));
+                }
+                return new Chunk(overdue.isEmpty() ? null : overdue.get(overdue.size() - 1).getId(), updated);
+            });
+            if (chunk == null || chunk.lastId() == null) {
+                break;
+            }
+            advanced += chunk.advanced();
+            lastId = chunk.lastId();
+        }
+        log.info("Billing roll-forward finished: {} subscriptions advanced", advanced);
+        return advanced;
+    }
+
+    private record Move(LocalDate from, LocalDate to) {
+    }
+
+    private record Chunk(Long lastId, int advanced) {
+    }
+}
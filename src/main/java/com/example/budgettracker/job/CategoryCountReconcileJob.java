@@ -0,0 +1,101 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.service.DataRevisionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Repairs drift in the stored per-category active-subscription counts by recounting
+ * them from the subscription table. Runs on a schedule when
+ * {@code app.jobs.category-count-reconcile.enabled=true}, on one node at a time
+ * (guarded by {@link JobLockManager}), in id-ordered chunks of users with one
+ * transaction and one bulk update each; only categories whose count drifted are written.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.category-count-reconcile.enabled", havingValue = "true")
+@Slf4j
+public class CategoryCountReconcileJob {
+
+    static final String LOCK_NAME = "category-count-reconcile";
+    static final int CHUNK_SIZE = 200;
+
+    private final AppUserRepository appUserRepository;
+    private final CategoryRepository categoryRepository;
+    private final JobLockManager jobLockManager;
+    private final DataRevisionService dataRevisionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseFor;
+
+    public CategoryCountReconcileJob(AppUserRepository appUserRepository,
+                                     CategoryRepository categoryRepository,
+                                     JobLockManager jobLockManager,
+                                     DataRevisionService dataRevisionService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.jobs.category-count-reconcile.lease:PT30M}") Duration leaseFor) {
+        this.appUserRepository = appUserRepository;
+        this.categoryRepository = categoryRepository;
+        this.jobLockManager = jobLockManager;
+        this.dataRevisionService = dataRevisionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseFor = leaseFor;
+    }
+
+    @Scheduled(cron = "${app.jobs.category-count-reconcile.cron:0 40 3 * * *}")
+    public void run() {
+        if (!jobLockManager.tryAcquire(LOCK_NAME, leaseFor)) {
+            return;
+        }
+        try {
+            reconcile();
+        } finally {
+            jobLockManager.release(LOCK_NAME);
+        }
+    }
+
+    public int reconcile() {
+        long lastId = 0L;
+        int users = 0;
+        int repaired = 0;
+        while (true) {
+            long afterId = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = appUserRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(CHUNK_SIZE)).stream()
+                        .map(AppUser::getId)
+                        .toList();
+                int updated = ids.isEmpty() ? 0 : categoryRepository.reconcileActiveSubscriptionCounts(ids);
+                if (updated > 0) {
+                    // Category list responses changed, so their ETags must too
+                    dataRevisionService.markChanged(ids);
+                }
+                return new Chunk(ids, updated);
+            });
+            if (chunk == null || chunk.userIds().isEmpty()) {
+                break;
+            }
+            users += chunk.userIds().size();
+            repaired += chunk.repaired();
+            lastId = chunk.userIds().get(chunk.userIds().size() - 1);
+        }
+        if (repaired > 0) {
+            log.warn("Category count reconcile repaired {} drifted categories across {} users", repaired, users);
+        } else {
+            log.info("Category count reconcile finished: {} users checked, no drift", users);
+        }
+        return repaired;
+    }
+
+    private record Chunk(List<Long> userIds, int repaired) {
+    }
+}
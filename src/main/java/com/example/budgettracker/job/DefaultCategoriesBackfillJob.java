@@ -0,0 +1,69 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.service.CategoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off backfill that seeds default categories for existing users and stamps
+ * their default categories version, so their next login skips the reconciliation.
+ * Runs at startup when {@code app.jobs.default-categories-backfill.enabled=true};
+ * each chunk of users is processed in its own transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.default-categories-backfill.enabled", havingValue = "true")
+@Slf4j
+public class DefaultCategoriesBackfillJob implements ApplicationRunner {
+
+    static final int CHUNK_SIZE = 200;
+
+    private final AppUserRepository appUserRepository;
+    private final CategoryService categoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    public DefaultCategoriesBackfillJob(AppUserRepository appUserRepository,
+                                        CategoryService categoryService,
+                                        PlatformTransactionManager transactionManager) {
+        this.appUserRepository = appUserRepository;
+        this.categoryService = categoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    public int backfill() {
+        long lastId = 0L;
+        int processed = 0;
+        while (true) {
+            long afterId = lastId;
+            List<AppUser> chunk = transactionTemplate.execute(status -> {
+                List<AppUser> users = appUserRepository.findByDefaultCategoriesVersionLessThanAndIdGreaterThanOrderByIdAsc(
+                        CategoryService.DEFAULT_CATEGORIES_VERSION, afterId, Limit.of(CHUNK_SIZE));
+                users.forEach(categoryService::ensureDefaultCategoriesExist);
+                return users;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            processed += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getId();
+            log.debug("Backfilled default categories for {} users (up to id {})", processed, lastId);
+        }
+        log.info("Default categories backfill finished: {} users updated to version {}",
+                processed, CategoryService.DEFAULT_CATEGORIES_VERSION);
+        return processed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.service.IncomeRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Repair job that recomputes every user's monthly income rollups from the income table.
+ * Runs at startup when {@code app.jobs.income-rollup-rebuild.enabled=true}, on one node at
+ * a time (guarded by {@link JobLockManager}); each chunk of users is rebuilt in its own
+ * transaction, under the same per-user lock the live rollup writers take.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.income-rollup-rebuild.enabled", havingValue = "true")
+@Slf4j
+public class IncomeRollupRebuildJob implements ApplicationRunner {
+
+    static final String LOCK_NAME = "income-rollup-rebuild";
+    static final int CHUNK_SIZE = 200;
+
+    private final AppUserRepository appUserRepository;
+    private final IncomeRollupService incomeRollupService;
+    private final JobLockManager jobLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseFor;
+
+    public IncomeRollupRebuildJob(AppUserRepository appUserRepository,
+                                  IncomeRollupService incomeRollupService,
+                                  JobLockManager jobLockManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.jobs.income-rollup-rebuild.lease:PT2H}") Duration leaseFor) {
+        this.appUserRepository = appUserRepository;
+        this.incomeRollupService = incomeRollupService;
+        this.jobLockManager = jobLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseFor = leaseFor;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!jobLockManager.tryAcquire(LOCK_NAME, leaseFor)) {
+            log.info("Income rollup rebuild skipped: running on another node");
+            return;
+        }
+        try {
+            rebuild();
+        } finally {
+            jobLockManager.release(LOCK_NAME);
+        }
+    }
+
+    public int rebuild() {
+        long lastId = 0L;
+        int processed = 0;
+        while (true) {
+            long afterId = lastId;
+            List<AppUser> chunk = transactionTemplate.execute(status -> {
+                List<AppUser> users = appUserRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(CHUNK_SIZE));
+                users.forEach(incomeRollupService::rebuild);
+                return users;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            processed += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getId();
+            log.debug("Rebuilt income rollups for {} users (up to id {})", processed, lastId);
+        }
+        log.info("Income rollup rebuild finished: {} users processed", processed);
+        return processed;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.model.JobLock;
+import com.example.budgettracker.repository.JobLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Database lease lock so a scheduled job runs on one node at a time. The lease expires
+ * on its own, so a node that dies mid-run blocks the job for at most the lease duration.
+ * Lock statements run in their own transactions so the lease is visible to other nodes
+ * immediately.
+ */
+@Component
+@Slf4j
+public class JobLockManager {
+
+    private static final LocalDateTime UNLOCKED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    public JobLockManager(JobLockRepository jobLockRepository, PlatformTransactionManager transactionManager) {
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean tryAcquire(String name, Duration leaseFor) {
+        ensureExists(name);
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> jobLockRepository.acquire(name, owner, now, now.plus(leaseFor)));
+        boolean acquired = updated != null && updated == 1;
+        if (!acquired) {
+            log.debug("Job lock {} is held by another node", name);
+        }
+        return acquired;
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> jobLockRepository.release(name, owner, LocalDateTime.now()));
+    }
+
+    private void ensureExists(String name) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> jobLockRepository.existsById(name)))) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobLockRepository.saveAndFlush(new JobLock(name, UNLOCKED, null)));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created it first
+        }
+    }
+}
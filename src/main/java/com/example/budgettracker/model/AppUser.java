@@ -1,21 +1,32 @@
 package com.example.budgettracker.model;
 
+import com.example.budgettracker.cache.AppUserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "app_user")
+@EntityListeners(AppUserCacheEvictionListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppUser.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class AppUser extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Second-level cache region, sized in HibernateCacheConfig
+    public static final String CACHE_REGION = "app-user";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "google_sub", nullable = false, unique = true)
@@ -27,6 +38,16 @@ public class AppUser extends BaseEntity {
     
     @Column(nullable = false)
     private String currency = "USD";
+
+    // Version of the default category set already seeded for this user
+    @Column(name = "default_categories_version", nullable = false)
+    private int defaultCategoriesVersion = 0;
+
+    // Bumped by bulk update on every change to the user's data (see DataRevisionService);
+    // never written through the entity so a stale copy cannot roll it back. Second-level
+    // cached copies are not refreshed by the bump: read it through findDataRevisionById
+    @Column(name = "data_revision", nullable = false, updatable = false)
+    private long dataRevision = 0;
     
     @OneToMany(mappedBy = "appUser", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Subscription> subscriptions = new ArrayList<>();
@@ -39,6 +60,23 @@ public class AppUser extends BaseEntity {
         this.currency = "USD"; // Default currency
     }
     
+    /**
+     * Keeps the subscriptions collection in step with a subscription written through its
+     * repository, but only when the collection is already loaded; an uninitialized
+     * collection is left alone so a single-row write never loads all of the user's rows.
+     */
+    public void addSubscription(Subscription subscription) {
+        if (Hibernate.isInitialized(subscriptions)) {
+            subscriptions.add(subscription);
+        }
+    }
+
+    public void removeSubscription(Long subscriptionId) {
+        if (Hibernate.isInitialized(subscriptions)) {
+            subscriptions.removeIf(subscription -> subscriptionId.equals(subscription.getId()));
+        }
+    }
+
     public AppUser updateFromGoogle(String name, String email, String pic) {
         this.fullName = name;
         this.email = email;
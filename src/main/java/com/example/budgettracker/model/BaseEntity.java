@@ -22,6 +22,12 @@ public abstract class BaseEntity {
     @LastModifiedDate
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    // Checked and bumped by every entity UPDATE; exposed to clients as the ETag for If-Match.
+    // A wrapper so only null marks an unsaved entity: detached copies at version 0 stay detached.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     
     @PrePersist
     protected void onCreate() {
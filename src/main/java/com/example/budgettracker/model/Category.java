@@ -1,10 +1,14 @@
 package com.example.budgettracker.model;
 
+import com.example.budgettracker.cache.CategoryCacheEvictionListener;
 import com.example.budgettracker.exception.CategoryLockedException;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "category", 
@@ -16,13 +20,19 @@ import lombok.Setter;
         @UniqueConstraint(name = "uk_category_user_name", columnNames = {"app_user_id", "name"})
     }
 )
+@EntityListeners(CategoryCacheEvictionListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Category extends BaseEntity {
 
+    // Second-level cache region, sized in HibernateCacheConfig
+    public static final String CACHE_REGION = "category";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,6 +45,14 @@ public class Category extends BaseEntity {
     @Column(name = "category_type", nullable = false)
     private CategoryType categoryType = CategoryType.SUBSCRIPTION;
 
+    // Kept by atomic increments from the subscription service and repaired by
+    // CategoryCountReconcileJob; never written through the entity so a stale copy cannot roll it back.
+    // No getter: cached copies lag the increments, so counts are read with
+    // CategoryRepository.findActiveSubscriptionCounts
+    @Column(name = "active_subscription_count", nullable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    private long activeSubscriptionCount = 0;
+
     public void assertMutable() {
         if (locked) {
             throw new CategoryLockedException(this.name);
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -12,14 +13,17 @@ import java.time.LocalDate;
 @Table(name = "income", indexes = {
     @Index(name = "idx_income_user", columnList = "app_user_id"),
     @Index(name = "idx_income_date", columnList = "income_date"),
-    @Index(name = "idx_income_category", columnList = "category_id")
+    @Index(name = "idx_income_category", columnList = "category_id"),
+    @Index(name = "idx_income_user_date_id", columnList = "app_user_id, income_date, id")
 })
 @Getter
 @Setter
 @NoArgsConstructor
+@DynamicUpdate
 public class Income extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "income_seq")
+    @SequenceGenerator(name = "income_seq", sequenceName = "income_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
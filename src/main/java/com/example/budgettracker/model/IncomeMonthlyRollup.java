@@ -0,0 +1,60 @@
+package com.example.budgettracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-month, per-category income totals. Maintained incrementally by
+ * the income write paths and rebuilt from the income table by
+ * {@code IncomeRollupRebuildJob}; rows are unique on (user, category, month).
+ */
+@Entity
+@Table(name = "income_monthly_rollup",
+    // Generated schemas only; migrations use V18's index, which also covers the null category
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_income_rollup_user_category_month", columnNames = {"app_user_id", "category_id", "month_start"})
+    },
+    indexes = {
+        @Index(name = "idx_income_rollup_user_month", columnList = "app_user_id, month_start")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class IncomeMonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "income_monthly_rollup_seq")
+    @SequenceGenerator(name = "income_monthly_rollup_seq", sequenceName = "income_monthly_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "app_user_id", nullable = false)
+    private AppUser appUser;
+
+    // Plain column so bulk increments can match it without a join; null for uncategorized income
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    // First day of the month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    public IncomeMonthlyRollup(AppUser appUser, Long categoryId, LocalDate monthStart, BigDecimal total, long entryCount) {
+        this.appUser = appUser;
+        this.categoryId = categoryId;
+        this.monthStart = monthStart;
+        this.total = total;
+        this.entryCount = entryCount;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.budgettracker.model;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
 public enum Period {
     ONE_TIME("One-time"),
     DAILY("Daily"),
@@ -17,4 +21,34 @@ public enum Period {
     public String getDisplayName() {
         return displayName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts an amount charged once per period into its monthly equivalent,
+     * rounded to cents. One-time amounts do not recur and contribute zero.
+     */
+    public BigDecimal toMonthly(BigDecimal amount) {
+        return switch (this) {
+            case DAILY -> amount.multiply(BigDecimal.valueOf(365)).divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+            case WEEKLY -> amount.multiply(BigDecimal.valueOf(52)).divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+            case MONTHLY -> amount;
+            case QUARTERLY -> amount.divide(BigDecimal.valueOf(3), 2, RoundingMode.HALF_UP);
+            case YEARLY -> amount.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+            case ONE_TIME -> BigDecimal.ZERO;
+        };
+    }
+
+    /**
+     * Returns the occurrence one period before the given date.
+     * Month-based periods clamp to the last day of shorter months (Mar 31 -> Feb 28/29).
+     */
+    public LocalDate previousDate(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date.minusDays(1);
+            case WEEKLY -> date.minusWeeks(1);
+            case MONTHLY -> date.minusMonths(1);
+            case QUARTERLY -> date.minusMonths(3);
+            case YEARLY -> date.minusYears(1);
+            case ONE_TIME -> date;
+        };
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -12,14 +13,19 @@ import java.time.LocalDate;
 @Table(name = "subscription", indexes = {
     @Index(name = "idx_subscription_user", columnList = "app_user_id"),
     @Index(name = "idx_subscription_next_billing", columnList = "nextBillingDate"),
-    @Index(name = "idx_subscription_active", columnList = "is_active")
+    @Index(name = "idx_subscription_active", columnList = "is_active"),
+    @Index(name = "idx_subscription_user_name_id", columnList = "app_user_id, name, id"),
+    @Index(name = "idx_subscription_user_active_next_billing", columnList = "app_user_id, is_active, nextBillingDate")
 })
 @Getter
 @Setter
 @NoArgsConstructor
+// UPDATE only the changed columns, so PATCHes such as pausing a subscription stay narrow
+@DynamicUpdate
 public class Subscription extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscription_seq")
+    @SequenceGenerator(name = "subscription_seq", sequenceName = "subscription_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -1,15 +1,41 @@
 package com.example.budgettracker.repository;
 
+import com.example.budgettracker.dto.AppUserSummary;
 import com.example.budgettracker.model.AppUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByGoogleSub(String googleSub);
     
-    @Query("SELECT DISTINCT u FROM AppUser u LEFT JOIN FETCH u.subscriptions s LEFT JOIN FETCH s.category WHERE u.googleSub = :googleSub")
-    Optional<AppUser> findByGoogleSubWithSubscriptions(@Param("googleSub") String googleSub);
+    // One row per user whatever the number of subscriptions; read those through
+    // SubscriptionRepository, or lazily with batch fetching
+    @Query("SELECT new com.example.budgettracker.dto.AppUserSummary(u.id, u.googleSub, u.email, u.fullName, u.pictureUrl, u.currency) " +
+            "FROM AppUser u WHERE u.googleSub = :googleSub")
+    Optional<AppUserSummary> findSummaryByGoogleSub(@Param("googleSub") String googleSub);
+
+    // Id-ordered chunks of users whose default categories are behind the given version
+    List<AppUser> findByDefaultCategoriesVersionLessThanAndIdGreaterThanOrderByIdAsc(int version, Long id, Limit limit);
+
+    List<AppUser> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT u.dataRevision FROM AppUser u WHERE u.id = :id")
+    Optional<Long> findDataRevisionById(@Param("id") Long id);
+
+    // Native with its own query space: a bulk HQL update on AppUser would clear the whole
+    // second-level user region on every write, though no cached state reads this column
+    @Modifying
+    @Query(value = "UPDATE app_user SET data_revision = data_revision + 1 WHERE id IN :ids", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_user_data_revision"))
+    int incrementDataRevision(@Param("ids") Collection<Long> ids);
 }
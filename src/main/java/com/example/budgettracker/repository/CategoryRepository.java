@@ -1,33 +1,63 @@
 package com.example.budgettracker.repository;
 
+import com.example.budgettracker.dto.CategorySubscriptionCount;
 import com.example.budgettracker.model.Category;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.CategoryType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    
-    Optional<Category> findByNameIgnoreCaseAndAppUser(String name, AppUser appUser);
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+
+    // lower() rather than the derived IgnoreCase (upper) so PostgreSQL can use uk_category_user_lower_name
+    @Query("SELECT c FROM Category c WHERE c.appUser = :appUser AND lower(c.name) = lower(:name)")
+    Optional<Category> findByNameIgnoreCaseAndAppUser(@Param("name") String name, @Param("appUser") AppUser appUser);
     
+    // Query cache: holds ids only, resolved through the category region; any write to the
+    // category table invalidates it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByAppUserOrderByNameAsc(AppUser appUser);
     
     List<Category> findByAppUserAndCategoryTypeOrderByNameAsc(AppUser appUser, CategoryType categoryType);
     
-    @Query("SELECT COUNT(s) FROM Subscription s WHERE s.category = :category AND s.active = true")
-    long countActiveSubscriptionsByCategory(@Param("category") Category category);
+    @Query("SELECT c.activeSubscriptionCount FROM Category c WHERE c.id = :id")
+    Optional<Long> findActiveSubscriptionCountById(@Param("id") Long id);
+
+    // Scalar projection, so always read from the table: cached Category copies lag the native increments
+    @Query("SELECT new com.example.budgettracker.dto.CategorySubscriptionCount(c.id, c.activeSubscriptionCount) " +
+           "FROM Category c WHERE c.appUser = :appUser")
+    List<CategorySubscriptionCount> findActiveSubscriptionCounts(@Param("appUser") AppUser appUser);
+
+    // Native with its own query space, like AppUserRepository.incrementDataRevision: a bulk HQL
+    // update would clear the whole category region. Cached entries keep the old count, so counts
+    // are only read through findActiveSubscriptionCounts.
+    // Flushes first so a category inserted earlier in the transaction is there to update.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE category SET active_subscription_count = active_subscription_count + :delta WHERE id = :id",
+           nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_active_subscription_count"))
+    int adjustActiveSubscriptionCount(@Param("id") Long id, @Param("delta") long delta);
+
+    // Recounts the given users' categories, touching only rows that drifted
+    @Modifying
+    @Query("UPDATE Category c SET c.activeSubscriptionCount = " +
+           "(SELECT COUNT(s) FROM Subscription s WHERE s.category = c AND s.active = true) " +
+           "WHERE c.appUser.id IN :userIds AND c.activeSubscriptionCount <> " +
+           "(SELECT COUNT(s) FROM Subscription s WHERE s.category = c AND s.active = true)")
+    int reconcileActiveSubscriptionCounts(@Param("userIds") Collection<Long> userIds);
     
     @Query("SELECT c FROM Category c WHERE c.appUser = :appUser AND c.name IN :reservedNames")
     List<Category> findReservedCategoriesByUser(@Param("appUser") AppUser appUser, @Param("reservedNames") List<String> reservedNames);
     
     @Query("SELECT c FROM Category c JOIN c.appUser u WHERE c.id = :categoryId AND u.id = :userId")
     Optional<Category> findByIdAndUserId(@Param("categoryId") Long categoryId, @Param("userId") Long userId);
-
-    // Bulk count of active subscriptions per category for a given user to avoid N+1 queries
-    @Query("SELECT c.id, COUNT(s.id) FROM Category c LEFT JOIN Subscription s ON s.category = c AND s.active = true WHERE c.appUser = :appUser GROUP BY c.id")
-    List<Object[]> countActiveSubscriptionsByUserGrouped(@Param("appUser") AppUser appUser);
 }
@@ -0,0 +1,14 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.CategoryType;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Inserts the category unless the user already has one with that name in any case.
+     * Returns false when it existed, including when a concurrent transaction created it;
+     * never fails on the unique index.
+     */
+    boolean insertIfAbsent(String name, CategoryType type, AppUser appUser);
+}
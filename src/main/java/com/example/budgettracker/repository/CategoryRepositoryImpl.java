@@ -0,0 +1,60 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Native upsert for categories. PostgreSQL uses ON CONFLICT DO NOTHING, backed by the
+ * case-insensitive unique index, so concurrent creators never abort each other's
+ * transactions. Other databases (H2 in tests) fall back to INSERT ... WHERE NOT EXISTS.
+ * The id comes straight from category_seq: a raw sequence value is the top of a pooled
+ * block that Hibernate never hands out, so it cannot collide with entity inserts.
+ */
+class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO category (id, name, locked, category_type, app_user_id, created_at, updated_at, version, active_subscription_count) " +
+            "VALUES (nextval('category_seq'), :name, false, :type, :userId, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0, 0) " +
+            // No conflict target: both unique indexes on (user, name) act as arbiters
+            "ON CONFLICT DO NOTHING";
+
+    private static final String PORTABLE_INSERT =
+            "INSERT INTO category (id, name, locked, category_type, app_user_id, created_at, updated_at, version, active_subscription_count) " +
+            "SELECT NEXT VALUE FOR category_seq, :name, false, :type, :userId, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM category WHERE app_user_id = :userId AND lower(name) = lower(:name))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String insertSql;
+
+    @Override
+    public boolean insertIfAbsent(String name, CategoryType type, AppUser appUser) {
+        // Synchronizing on category alone narrows auto-flush to category writes as well,
+        // but the row references a user that may still be pending in this session
+        entityManager.flush();
+        return entityManager.createNativeQuery(insertSql())
+                // Without it Hibernate would invalidate every cache region after a native write
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Category.class)
+                .setParameter("name", name)
+                .setParameter("type", type.name())
+                .setParameter("userId", appUser.getId())
+                .executeUpdate() == 1;
+    }
+
+    private String insertSql() {
+        if (insertSql == null) {
+            boolean postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            insertSql = postgres ? POSTGRES_INSERT : PORTABLE_INSERT;
+        }
+        return insertSql;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.dto.CategoryIncomeTotal;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.IncomeMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IncomeMonthlyRollupRepository extends JpaRepository<IncomeMonthlyRollup, Long>, IncomeMonthlyRollupRepositoryCustom {
+
+    @Query("SELECT COALESCE(SUM(r.total), 0) FROM IncomeMonthlyRollup r " +
+           "WHERE r.appUser = :appUser AND r.monthStart BETWEEN :fromMonth AND :toMonth")
+    BigDecimal sumTotals(@Param("appUser") AppUser appUser,
+                         @Param("fromMonth") LocalDate fromMonth,
+                         @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT new com.example.budgettracker.dto.MonthlyIncomeTotal(r.monthStart, SUM(r.total)) " +
+           "FROM IncomeMonthlyRollup r WHERE r.appUser = :appUser AND r.monthStart BETWEEN :fromMonth AND :toMonth " +
+           "GROUP BY r.monthStart ORDER BY r.monthStart")
+    List<MonthlyIncomeTotal> findMonthlyTotals(@Param("appUser") AppUser appUser,
+                                               @Param("fromMonth") LocalDate fromMonth,
+                                               @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT new com.example.budgettracker.dto.CategoryIncomeTotal(r.categoryId, SUM(r.entryCount), SUM(r.total)) " +
+           "FROM IncomeMonthlyRollup r WHERE r.appUser = :appUser AND r.monthStart BETWEEN :fromMonth AND :toMonth " +
+           "GROUP BY r.categoryId")
+    List<CategoryIncomeTotal> findCategoryTotals(@Param("appUser") AppUser appUser,
+                                                 @Param("fromMonth") LocalDate fromMonth,
+                                                 @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT new com.example.budgettracker.dto.CategoryIncomeTotal(r.categoryId, SUM(r.entryCount), SUM(r.total)) " +
+           "FROM IncomeMonthlyRollup r WHERE r.appUser = :appUser GROUP BY r.categoryId")
+    List<CategoryIncomeTotal> findCategoryTotals(@Param("appUser") AppUser appUser);
+
+    @Modifying
+    @Query("DELETE FROM IncomeMonthlyRollup r WHERE r.appUser = :appUser")
+    int deleteByAppUser(@Param("appUser") AppUser appUser);
+}
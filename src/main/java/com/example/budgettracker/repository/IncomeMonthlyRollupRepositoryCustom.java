@@ -0,0 +1,23 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.model.AppUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface IncomeMonthlyRollupRepositoryCustom {
+
+    /**
+     * Adds the amount and count to the (user, category, month) bucket, creating it when
+     * it does not exist yet. A single statement: concurrent writers to a new bucket never
+     * fail on its unique index. A null category is the uncategorized bucket.
+     */
+    void addToBucket(AppUser appUser, Long categoryId, LocalDate monthStart, BigDecimal amount, long count);
+
+    /**
+     * Locks the user's row until the transaction ends. Every writer of the user's rollups,
+     * the live upserts and the rebuild, takes it first, so a rebuild never interleaves with
+     * an income write.
+     */
+    void lockOwner(AppUser appUser);
+}
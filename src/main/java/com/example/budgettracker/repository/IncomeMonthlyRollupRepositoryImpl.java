@@ -0,0 +1,83 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.IncomeMonthlyRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Native upsert for rollup buckets. PostgreSQL uses ON CONFLICT DO UPDATE on the
+ * (user, COALESCE(category, 0), month) unique index from V18. Other databases (H2 in
+ * tests) fall back to MERGE, which is not atomic against a concurrent insert there; it
+ * relies on the writers being serialized on the owning user row by lockOwner. Ids come
+ * from the raw sequence, as in CategoryRepositoryImpl.
+ */
+class IncomeMonthlyRollupRepositoryImpl implements IncomeMonthlyRollupRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO income_monthly_rollup (id, app_user_id, category_id, month_start, total, entry_count) " +
+            "VALUES (nextval('income_monthly_rollup_seq'), :userId, :categoryId, :monthStart, :amount, :count) " +
+            "ON CONFLICT (app_user_id, (COALESCE(category_id, 0)), month_start) DO UPDATE SET " +
+            "total = income_monthly_rollup.total + EXCLUDED.total, " +
+            "entry_count = income_monthly_rollup.entry_count + EXCLUDED.entry_count";
+
+    // NO KEY UPDATE: income inserts hold KEY SHARE on the user row for their foreign key, and
+    // must not deadlock against this lock when they upgrade
+    private static final String POSTGRES_LOCK = "SELECT id FROM app_user WHERE id = :userId FOR NO KEY UPDATE";
+
+    private static final String PORTABLE_LOCK = "SELECT id FROM app_user WHERE id = :userId FOR UPDATE";
+
+    private static final String PORTABLE_UPSERT =
+            "MERGE INTO income_monthly_rollup r " +
+            "USING (VALUES (CAST(:userId AS BIGINT), CAST(:categoryId AS BIGINT), CAST(:monthStart AS DATE), " +
+            "CAST(:amount AS DECIMAL(14,2)), CAST(:count AS BIGINT))) " +
+            "AS s (app_user_id, category_id, month_start, total, entry_count) " +
+            "ON r.app_user_id = s.app_user_id AND COALESCE(r.category_id, 0) = COALESCE(s.category_id, 0) " +
+            "AND r.month_start = s.month_start " +
+            "WHEN MATCHED THEN UPDATE SET total = r.total + s.total, entry_count = r.entry_count + s.entry_count " +
+            "WHEN NOT MATCHED THEN INSERT (id, app_user_id, category_id, month_start, total, entry_count) " +
+            "VALUES (NEXT VALUE FOR income_monthly_rollup_seq, s.app_user_id, s.category_id, s.month_start, s.total, s.entry_count)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addToBucket(AppUser appUser, Long categoryId, LocalDate monthStart, BigDecimal amount, long count) {
+        // Synchronized on the rollup table alone, which also narrows auto-flush: the income
+        // row and the user it references may still be pending in this session
+        entityManager.flush();
+        entityManager.createNativeQuery(postgres() ? POSTGRES_UPSERT : PORTABLE_UPSERT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(IncomeMonthlyRollup.class)
+                .setParameter("userId", appUser.getId())
+                // Typed so a null (uncategorized) binds without a type guess
+                .setParameter("categoryId", categoryId, Long.class)
+                .setParameter("monthStart", monthStart)
+                .setParameter("amount", amount)
+                .setParameter("count", count)
+                .executeUpdate();
+    }
+
+    @Override
+    public void lockOwner(AppUser appUser) {
+        entityManager.createNativeQuery(postgres() ? POSTGRES_LOCK : PORTABLE_LOCK)
+                .setParameter("userId", appUser.getId())
+                .getSingleResult();
+    }
+
+    private boolean postgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
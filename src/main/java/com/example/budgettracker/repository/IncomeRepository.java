@@ -1,11 +1,16 @@
 package com.example.budgettracker.repository;
 
+import com.example.budgettracker.dto.CategoryIncomeTotal;
+import com.example.budgettracker.dto.IncomeResponse;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Income;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,12 +18,43 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface IncomeRepository extends JpaRepository<Income, Long> {
 
+    String RESPONSE_COLUMNS = "new com.example.budgettracker.dto.IncomeResponse(" +
+            "i.id, i.name, i.amount, i.incomeDate, i.period, i.description, c.id, c.name, i.version)";
+
     Page<Income> findByAppUserOrderByIncomeDateDesc(AppUser appUser, Pageable pageable);
 
+    // List pages are read as response rows: only the listed columns, no managed entities to dirty-check.
+    // Newest first, then the requested sort, as the derived findByAppUserOrderByIncomeDateDesc orders
+    @Query(value = "SELECT " + RESPONSE_COLUMNS + " FROM Income i LEFT JOIN i.category c WHERE i.appUser = :appUser " +
+                   "ORDER BY i.incomeDate DESC",
+           countQuery = "SELECT COUNT(i) FROM Income i WHERE i.appUser = :appUser")
+    Page<IncomeResponse> findResponsesByAppUser(@Param("appUser") AppUser appUser, Pageable pageable);
+
+    // Keyset pagination ordered by (incomeDate desc, id desc); no COUNT query and no OFFSET scan
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Income i LEFT JOIN i.category c WHERE i.appUser = :appUser " +
+           "ORDER BY i.incomeDate DESC, i.id DESC")
+    List<IncomeResponse> findResponsesByAppUser(@Param("appUser") AppUser appUser, Limit limit);
+
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Income i LEFT JOIN i.category c WHERE i.appUser = :appUser " +
+           "AND (i.incomeDate < :incomeDate OR (i.incomeDate = :incomeDate AND i.id < :id)) ORDER BY i.incomeDate DESC, i.id DESC")
+    List<IncomeResponse> findResponsesByAppUserBefore(@Param("appUser") AppUser appUser,
+                                                      @Param("incomeDate") LocalDate incomeDate,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM Income i LEFT JOIN FETCH i.category WHERE i.appUser = :appUser ORDER BY i.incomeDate DESC, i.id DESC")
+    Stream<Income> streamByAppUser(@Param("appUser") AppUser appUser);
+
     List<Income> findByAppUserAndIncomeDateBetweenOrderByIncomeDateDesc(
             AppUser appUser, LocalDate startDate, LocalDate endDate);
 
@@ -29,6 +65,25 @@ public interface IncomeRepository extends JpaRepository<Income, Long> {
                                        @Param("startDate") LocalDate startDate, 
                                        @Param("endDate") LocalDate endDate);
 
+    // Recurring entries that started by the end date plus one-off entries inside the window
+    @Query("SELECT i FROM Income i WHERE i.appUser = :user AND i.incomeDate <= :endDate " +
+           "AND (i.period <> com.example.budgettracker.model.Period.ONE_TIME OR i.incomeDate >= :startDate)")
+    List<Income> findProjectableByUser(@Param("user") AppUser user,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // Raw (year, month, categoryId, sum, count) buckets used to rebuild the monthly rollups
+    @Query("SELECT YEAR(i.incomeDate), MONTH(i.incomeDate), i.category.id, SUM(i.amount), COUNT(i) FROM Income i " +
+           "WHERE i.appUser = :user GROUP BY YEAR(i.incomeDate), MONTH(i.incomeDate), i.category.id")
+    List<Object[]> aggregateMonthlyByUser(@Param("user") AppUser user);
+
+    // Per-category entry count and sum in a date range; the rollups cover whole months, this the edges
+    @Query("SELECT new com.example.budgettracker.dto.CategoryIncomeTotal(i.category.id, COUNT(i), SUM(i.amount)) FROM Income i " +
+           "WHERE i.appUser = :user AND i.incomeDate BETWEEN :startDate AND :endDate GROUP BY i.category.id")
+    List<CategoryIncomeTotal> aggregateByCategory(@Param("user") AppUser user,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
     @Query("SELECT COUNT(i) FROM Income i WHERE i.appUser = :user AND i.incomeDate >= :startDate")
     long countByUserAndDateAfter(@Param("user") AppUser user, @Param("startDate") LocalDate startDate);
 }
\ No newline at end of file
@@ -1,16 +1,35 @@
 package com.example.budgettracker.repository;
 
+import com.example.budgettracker.dto.OverdueBilling;
+import com.example.budgettracker.dto.SubscriptionResponse;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Category;
 import com.example.budgettracker.model.Subscription;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long>, SubscriptionRepositoryCustom {
+
+    String RESPONSE_COLUMNS = "new com.example.budgettracker.dto.SubscriptionResponse(" +
+            "s.id, s.name, s.price, s.period, s.nextBillingDate, s.active, c.id, c.name, s.version)";
 
     @EntityGraph(attributePaths = {"category"})
     List<Subscription> findByCategoryAndAppUser(Category category, AppUser appUser);
@@ -24,6 +43,51 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     @EntityGraph(attributePaths = {"category"})
     List<Subscription> findByAppUser(AppUser appUser);
 
+    Optional<Subscription> findByIdAndAppUser(Long id, AppUser appUser);
+
+    @Query("SELECT s.appUser.id FROM Subscription s WHERE s.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    // List pages are read as response rows: only the listed columns, no managed entities to dirty-check
+    @Query(value = "SELECT " + RESPONSE_COLUMNS + " FROM Subscription s LEFT JOIN s.category c WHERE s.appUser = :appUser",
+           countQuery = "SELECT COUNT(s) FROM Subscription s WHERE s.appUser = :appUser")
+    Page<SubscriptionResponse> findResponsesByAppUser(@Param("appUser") AppUser appUser, Pageable pageable);
+
+    // Active subscriptions billing on or before the date; one range scan on idx_subscription_user_active_next_billing
     @EntityGraph(attributePaths = {"category"})
-    Page<Subscription> findByAppUser(AppUser appUser, Pageable pageable);
+    @Query("SELECT s FROM Subscription s WHERE s.appUser = :appUser AND s.active = true AND s.nextBillingDate <= :endDate")
+    List<Subscription> findActiveDueByAppUser(@Param("appUser") AppUser appUser, @Param("endDate") LocalDate endDate);
+
+    // Id-ordered chunk of recurring subscriptions whose next billing date has passed
+    @Query("SELECT new com.example.budgettracker.dto.OverdueBilling(s.id, s.appUser.id, s.period, s.nextBillingDate) " +
+           "FROM Subscription s WHERE s.id > :afterId AND s.active = true AND s.nextBillingDate < :today " +
+           "AND s.period <> com.example.budgettracker.model.Period.ONE_TIME ORDER BY s.id")
+    List<OverdueBilling> findOverdueAfterId(@Param("afterId") Long afterId, @Param("today") LocalDate today, Limit limit);
+
+    // Unversioned: a background date move must not stale a client's If-Match. Matching the
+    // date that was read lets a concurrent edit win, and a concurrently deleted row is skipped
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Subscription s SET s.nextBillingDate = :next, s.updatedAt = :now " +
+           "WHERE s.id IN :ids AND s.nextBillingDate = :previous")
+    int advanceNextBillingDate(@Param("ids") Collection<Long> ids,
+                               @Param("previous") LocalDate previous,
+                               @Param("next") LocalDate next,
+                               @Param("now") LocalDateTime now);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM Subscription s LEFT JOIN FETCH s.category WHERE s.appUser = :appUser ORDER BY s.name ASC, s.id ASC")
+    Stream<Subscription> streamByAppUser(@Param("appUser") AppUser appUser);
+
+    // Keyset pagination ordered by (name, id); no COUNT query and no OFFSET scan
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Subscription s LEFT JOIN s.category c WHERE s.appUser = :appUser " +
+           "ORDER BY s.name ASC, s.id ASC")
+    List<SubscriptionResponse> findResponsesByAppUser(@Param("appUser") AppUser appUser, Limit limit);
+
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Subscription s LEFT JOIN s.category c WHERE s.appUser = :appUser " +
+           "AND (s.name > :name OR (s.name = :name AND s.id > :id)) ORDER BY s.name ASC, s.id ASC")
+    List<SubscriptionResponse> findResponsesByAppUserAfter(@Param("appUser") AppUser appUser,
+                                                           @Param("name") String name,
+                                                           @Param("id") Long id,
+                                                           Limit limit);
 }
@@ -0,0 +1,16 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.dto.DeletedSubscription;
+import com.example.budgettracker.model.AppUser;
+
+import java.util.Optional;
+
+public interface SubscriptionRepositoryCustom {
+
+    /**
+     * Deletes the user's subscription, only at the expected version when one is given, and
+     * returns the category and active flag of the row that was removed. Empty when nothing
+     * was deleted: the row is missing, owned by someone else, or at another version.
+     */
+    Optional<DeletedSubscription> deleteReturning(Long id, AppUser appUser, Long expectedVersion);
+}
@@ -0,0 +1,129 @@
+package com.example.budgettracker.repository;
+
+import com.example.budgettracker.dto.DeletedSubscription;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Subscription;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Native delete that reports what it removed, so the category count can be adjusted without
+ * locking the row first. PostgreSQL uses DELETE ... RETURNING. Other databases (H2 in tests)
+ * read the row and delete it at the version read; a concurrent write makes that delete miss,
+ * and an unversioned delete then reads again.
+ */
+class SubscriptionRepositoryImpl implements SubscriptionRepositoryCustom {
+
+    private static final String POSTGRES_DELETE =
+            "DELETE FROM subscription WHERE id = :id AND app_user_id = :userId " +
+            "AND (CAST(:version AS BIGINT) IS NULL OR version = :version) " +
+            "RETURNING category_id, is_active";
+
+    private static final String PORTABLE_SELECT =
+            "SELECT category_id, is_active, version FROM subscription WHERE id = :id AND app_user_id = :userId";
+
+    private static final String PORTABLE_DELETE =
+            "DELETE FROM subscription WHERE id = :id AND version = :version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<DeletedSubscription> deleteReturning(Long id, AppUser appUser, Long expectedVersion) {
+        entityManager.flush();
+        Optional<DeletedSubscription> deleted = postgres()
+                ? deleteReturningRow(id, appUser, expectedVersion)
+                : deleteAtReadVersion(id, appUser, expectedVersion);
+        if (deleted.isPresent()) {
+            forgetDeletedRow(id);
+        }
+        return deleted;
+    }
+
+    // The delete bypasses the persistence context. Retire this row's managed copy the way
+    // Hibernate does after its own deletes: the entry is marked gone, so a cascade or orphan
+    // removal from the user's subscriptions skips it, and everything else stays attached
+    private void forgetDeletedRow(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityKey key = session.generateEntityKey(id, session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Subscription.class));
+        org.hibernate.engine.spi.PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        Object entity = persistenceContext.removeEntity(key);
+        if (entity != null) {
+            EntityEntry entry = persistenceContext.getEntry(entity);
+            if (entry != null) {
+                entry.postDelete();
+            }
+        }
+        persistenceContext.removeProxy(key);
+    }
+
+    private Optional<DeletedSubscription> deleteReturningRow(Long id, AppUser appUser, Long expectedVersion) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(POSTGRES_DELETE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Subscription.class)
+                .addScalar("category_id", Long.class)
+                .addScalar("is_active", Boolean.class)
+                .setParameter("id", id)
+                .setParameter("userId", appUser.getId())
+                .setParameter("version", expectedVersion, Long.class)
+                .getResultList();
+        return rows.stream().findFirst().map(row -> new DeletedSubscription((Long) row[0], (Boolean) row[1]));
+    }
+
+    private Optional<DeletedSubscription> deleteAtReadVersion(Long id, AppUser appUser, Long expectedVersion) {
+        while (true) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(PORTABLE_SELECT)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Subscription.class)
+                    .addScalar("category_id", Long.class)
+                    .addScalar("is_active", Boolean.class)
+                    .addScalar("version", Long.class)
+                    .setParameter("id", id)
+                    .setParameter("userId", appUser.getId())
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return Optional.empty();
+            }
+            Object[] row = rows.get(0);
+            Long version = (Long) row[2];
+            if (expectedVersion != null && !expectedVersion.equals(version)) {
+                return Optional.empty();
+            }
+            int deleted = entityManager.createNativeQuery(PORTABLE_DELETE)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Subscription.class)
+                    .setParameter("id", id)
+                    .setParameter("version", version)
+                    .executeUpdate();
+            if (deleted == 1) {
+                return Optional.of(new DeletedSubscription((Long) row[0], (Boolean) row[1]));
+            }
+            if (expectedVersion != null) {
+                // Changed since the read, so the expected version is stale now
+                return Optional.empty();
+            }
+        }
+    }
+
+    private boolean postgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
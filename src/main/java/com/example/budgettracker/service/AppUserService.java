@@ -1,5 +1,8 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.cache.AppUserCache;
+import com.example.budgettracker.cache.AppUserCacheEvictionListener;
+import com.example.budgettracker.dto.AppUserSummary;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.repository.AppUserRepository;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +18,7 @@ public class AppUserService {
 
     private final AppUserRepository appUserRepository;
     private final CategoryService categoryService;
+    private final AppUserCache appUserCache;
 
     @Transactional
     public void processUserLogin(OidcUser googleUser) {
@@ -34,23 +38,34 @@ public class AppUserService {
                     return appUserRepository.save(newUser);
                 });
 
-        // Ensure default categories exist for the user
-        categoryService.ensureDefaultCategoriesExist(user);
+        // Reconcile default categories only when the user's seeded set is out of date
+        if (user.getDefaultCategoriesVersion() < CategoryService.DEFAULT_CATEGORIES_VERSION) {
+            categoryService.ensureDefaultCategoriesExist(user);
+        }
     }
 
-    public Optional<AppUser> findByOidcUser(OidcUser oidcUser) {
+    public Optional<AppUserSummary> findByOidcUser(OidcUser oidcUser) {
         if (oidcUser == null) {
             return Optional.empty();
         }
-        // Use optimized query to fetch user with subscriptions
-        return appUserRepository.findByGoogleSubWithSubscriptions(oidcUser.getSubject());
+        // Single-row projection: cost does not grow with the user's subscriptions
+        return appUserRepository.findSummaryByGoogleSub(oidcUser.getSubject());
     }
 
+    /**
+     * Resolves a user by Google subject through the user cache.
+     * The returned instance is a detached copy; use {@link #updateCurrency} to persist changes.
+     * Cache entries are evicted by {@link AppUserCacheEvictionListener} on every write.
+     */
     public Optional<AppUser> findByGoogleSub(String googleSub) {
-        return appUserRepository.findByGoogleSub(googleSub);
+        return appUserCache.get(googleSub, appUserRepository::findByGoogleSub);
     }
 
-    public Optional<AppUser> findByGoogleSubWithSubscriptions(String googleSub) {
-        return appUserRepository.findByGoogleSubWithSubscriptions(googleSub);
+    @Transactional
+    public void updateCurrency(AppUser user, String currency) {
+        AppUser managed = appUserRepository.findById(user.getId())
+                .orElseThrow(() -> new IllegalStateException("User not found with id: " + user.getId()));
+        managed.setCurrency(currency);
+        user.setCurrency(currency);
     }
 }
\ No newline at end of file
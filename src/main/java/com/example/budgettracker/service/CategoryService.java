@@ -5,19 +5,27 @@ import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Category;
 import com.example.budgettracker.model.CategoryType;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface CategoryService {
+
+    /**
+     * Version of the default category set. Bump it whenever the defaults change so
+     * existing users are reconciled on their next login.
+     */
+    int DEFAULT_CATEGORIES_VERSION = 1;
     
     /**
-     * Ensures default categories exist for the user
+     * Ensures default categories exist for the user and marks the user as seeded
      */
     void ensureDefaultCategoriesExist(AppUser user);
     
     /**
-     * Find or create a category for a user
+     * Find or create a category for a user; a created category gets the given type
      */
-    Category findOrCreateCategory(String name, AppUser user);
+    Category findOrCreateCategory(String name, CategoryType type, AppUser user);
     
     /**
      * Get all categories for a user
@@ -30,11 +38,23 @@ public interface CategoryService {
     List<CategoryResponse> getCategoriesWithCountsForUser(AppUser user);
     
     List<CategoryResponse> getCategoriesByTypeForUser(AppUser user, CategoryType categoryType);
+
+    /**
+     * Get income categories with their entry count and total between the two dates
+     * (inclusive); both null means all time
+     */
+    List<CategoryResponse> getIncomeCategoriesWithTotals(AppUser user, LocalDate startDate, LocalDate endDate);
     
     /**
      * Get count of active subscriptions for a category
      */
     long getActiveSubscriptionCount(Category category);
+
+    /**
+     * Applies category id -> delta changes to the stored active-subscription counts,
+     * within the caller's transaction
+     */
+    void adjustActiveSubscriptionCounts(Map<Long, Long> deltasByCategoryId);
     
     /**
      * Find a category by ID for a specific user
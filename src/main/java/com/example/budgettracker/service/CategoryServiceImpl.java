@@ -1,6 +1,9 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.cache.CategoryCache;
+import com.example.budgettracker.dto.CategoryIncomeTotal;
 import com.example.budgettracker.dto.CategoryResponse;
+import com.example.budgettracker.dto.CategorySubscriptionCount;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Category;
 import com.example.budgettracker.model.CategoryType;
@@ -9,8 +12,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +29,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final DataRevisionService dataRevisionService;
+    private final CategoryCache categoryCache;
+    private final IncomeRollupService incomeRollupService;
     
     @Override
     @Transactional
@@ -28,29 +39,41 @@ public class CategoryServiceImpl implements CategoryService {
         log.debug("Ensuring default categories exist for user: {}", user.getId());
         
         List<Category> existingCategories = categoryRepository.findByAppUserOrderByNameAsc(user);
+        // Compared lower-cased, as uk_category_user_lower_name does: "UTILITIES" already covers "Utilities"
         Set<String> existingNames = existingCategories.stream()
-            .map(Category::getName)
+            .map(category -> category.getName().toLowerCase(Locale.ROOT))
             .collect(Collectors.toSet());
         
         List<Category> categoriesToCreate = new ArrayList<>();
         
         getDefaultCategories().forEach(name -> {
-            if (!existingNames.contains(name)) {
+            if (!existingNames.contains(name.toLowerCase(Locale.ROOT))) {
                 categoriesToCreate.add(new Category(name, user));
             }
         });
         
         if (!categoriesToCreate.isEmpty()) {
             categoryRepository.saveAll(categoriesToCreate);
+            dataRevisionService.markChanged(user);
             log.info("Created {} default categories for user {}", categoriesToCreate.size(), user.getId());
         }
+        user.setDefaultCategoriesVersion(DEFAULT_CATEGORIES_VERSION);
     }
     
     @Override
     @Transactional
-    public Category findOrCreateCategory(String name, AppUser user) {
-        return categoryRepository.findByNameIgnoreCaseAndAppUser(name, user)
-            .orElseGet(() -> categoryRepository.save(new Category(name, user)));
+    public Category findOrCreateCategory(String name, CategoryType type, AppUser user) {
+        return categoryCache.findByName(user, name, this::loadCategories)
+            .orElseGet(() -> {
+                // A concurrent creator makes this insert a no-op instead of a unique violation
+                if (categoryRepository.insertIfAbsent(name, type, user)) {
+                    // Native insert: the entity listener does not see it
+                    categoryCache.evict(user.getId());
+                    dataRevisionService.markChanged(user);
+                }
+                return categoryRepository.findByNameIgnoreCaseAndAppUser(name, user)
+                    .orElseThrow(() -> new IllegalStateException("Category '" + name + "' vanished after insert"));
+            });
     }
     
     @Override
@@ -59,34 +82,46 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getCategoriesWithCountsForUser(AppUser user) {
-        List<Category> categories = categoryRepository.findByAppUserOrderByNameAsc(user);
-        // Build a map of categoryId -> active subscription count using a single grouped query
-        List<Object[]> groupedCounts = categoryRepository.countActiveSubscriptionsByUserGrouped(user);
-        java.util.Map<Long, Long> categoryIdToCount = groupedCounts.stream()
-                .collect(Collectors.toMap(
-                        row -> (Long) row[0],
-                        row -> (Long) row[1]
-                ));
-
-        return categories.stream()
-                .map(category -> CategoryResponse.fromEntity(
-                        category,
-                        categoryIdToCount.getOrDefault(category.getId(), 0L)
-                ))
+        // Categories may come from the second-level cache; their counts never do
+        Map<Long, Long> counts = activeSubscriptionCounts(user);
+        return categoryRepository.findByAppUserOrderByNameAsc(user).stream()
+                .map(category -> CategoryResponse.fromEntity(category, counts.getOrDefault(category.getId(), 0L)))
                 .collect(Collectors.toList());
     }
     
     @Override
     public long getActiveSubscriptionCount(Category category) {
-        return categoryRepository.countActiveSubscriptionsByCategory(category);
+        return categoryRepository.findActiveSubscriptionCountById(category.getId()).orElse(0L);
+    }
+
+    @Override
+    @Transactional
+    public void adjustActiveSubscriptionCounts(Map<Long, Long> deltasByCategoryId) {
+        // Cached Category entries keep their old count; readers go through findActiveSubscriptionCounts
+        deltasByCategoryId.forEach((categoryId, delta) -> {
+            if (delta != 0) {
+                categoryRepository.adjustActiveSubscriptionCount(categoryId, delta);
+            }
+        });
     }
     
     @Override
     public Category findByIdAndUser(Long categoryId, AppUser user) {
-        return categoryRepository.findByIdAndUserId(categoryId, user.getId())
+        return categoryCache.findById(user, categoryId, this::loadCategories)
+            .or(() -> {
+                // Not in the snapshot: created on another node since it was loaded, or not the user's
+                Optional<Category> found = categoryRepository.findByIdAndUserId(categoryId, user.getId());
+                found.ifPresent(category -> categoryCache.evict(user.getId()));
+                return found;
+            })
             .orElseThrow(() -> new com.example.budgettracker.exception.CategoryNotFoundException(categoryId));
     }
+
+    private List<Category> loadCategories(AppUser user) {
+        return categoryRepository.findByAppUserOrderByNameAsc(user);
+    }
     
     private static final List<String> DEFAULT_CATEGORIES = List.of(
         "Entertainment",
@@ -103,19 +138,36 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponse> getCategoriesByTypeForUser(AppUser user, CategoryType categoryType) {
-        List<Category> categories = categoryRepository.findByAppUserAndCategoryTypeOrderByNameAsc(user, categoryType);
-        return categories.stream()
+        if (categoryType == CategoryType.INCOME) {
+            return getIncomeCategoriesWithTotals(user, null, null);
+        }
+        Map<Long, Long> counts = activeSubscriptionCounts(user);
+        return categoryRepository.findByAppUserAndCategoryTypeOrderByNameAsc(user, categoryType).stream()
+                .map(category -> CategoryResponse.fromEntity(category, counts.getOrDefault(category.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryResponse> getIncomeCategoriesWithTotals(AppUser user, LocalDate startDate, LocalDate endDate) {
+        // Grouped over the monthly rollups, so the cost does not grow with the number of income rows
+        Map<Long, CategoryIncomeTotal> totals = incomeRollupService.getCategoryTotals(user, startDate, endDate);
+        return categoryRepository.findByAppUserAndCategoryTypeOrderByNameAsc(user, CategoryType.INCOME).stream()
                 .map(category -> {
-                    CategoryResponse response = new CategoryResponse();
-                    response.setId(category.getId());
-                    response.setName(category.getName());
-                    response.setLocked(category.isLocked());
-                    response.setSubscriptionCount(0L); // No subscription count needed for income categories
+                    CategoryResponse response = CategoryResponse.fromEntity(category);
+                    CategoryIncomeTotal total = totals.get(category.getId());
+                    response.setIncomeCount(total != null ? total.getCount() : 0L);
+                    response.setIncomeTotal(total != null ? total.getTotal() : BigDecimal.ZERO);
                     return response;
                 })
                 .collect(Collectors.toList());
     }
     
+    private Map<Long, Long> activeSubscriptionCounts(AppUser user) {
+        return categoryRepository.findActiveSubscriptionCounts(user).stream()
+                .collect(Collectors.toMap(CategorySubscriptionCount::getCategoryId, CategorySubscriptionCount::getCount));
+    }
+
     private List<String> getDefaultCategories() {
         return DEFAULT_CATEGORIES;
     }
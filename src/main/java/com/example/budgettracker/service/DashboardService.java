@@ -0,0 +1,12 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.DashboardMetricsResponse;
+import com.example.budgettracker.model.AppUser;
+
+public interface DashboardService {
+
+    /**
+     * Aggregates spend, upcoming bills, recent activity and current-month income for the dashboard.
+     */
+    DashboardMetricsResponse getMetricsForUser(AppUser user);
+}
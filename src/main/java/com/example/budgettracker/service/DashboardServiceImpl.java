@@ -0,0 +1,76 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.DashboardMetricsResponse;
+import com.example.budgettracker.dto.RecentActivityResponse;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final int UPCOMING_WINDOW_DAYS = 7;
+    private static final int RECENT_WINDOW_DAYS = 30;
+    private static final int RECENT_ACTIVITY_LIMIT = 5;
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final IncomeRollupService incomeRollupService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardMetricsResponse getMetricsForUser(AppUser user) {
+        LocalDate today = LocalDate.now();
+        List<Subscription> activeSubscriptions = subscriptionRepository.findByAppUserAndActive(user, true);
+
+        BigDecimal totalMonthlySpend = activeSubscriptions.stream()
+                .filter(s -> s.getPrice() != null && s.getPeriod() != null)
+                .map(s -> s.getPeriod().toMonthly(s.getPrice()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<Subscription> upcoming = activeSubscriptions.stream()
+                .filter(s -> s.getNextBillingDate() != null)
+                .filter(s -> {
+                    long days = ChronoUnit.DAYS.between(today, s.getNextBillingDate());
+                    return days >= 0 && days <= UPCOMING_WINDOW_DAYS;
+                })
+                .sorted(Comparator.comparing(Subscription::getNextBillingDate))
+                .collect(Collectors.toList());
+
+        List<RecentActivityResponse> recentActivity = activeSubscriptions.stream()
+                .filter(s -> s.getNextBillingDate() != null && s.getPeriod() != null)
+                .map(s -> {
+                    LocalDate lastBilling = s.getPeriod().previousDate(s.getNextBillingDate());
+                    return RecentActivityResponse.fromEntity(s, lastBilling, ChronoUnit.DAYS.between(lastBilling, today));
+                })
+                .filter(a -> a.getDaysSinceLastBilling() >= 0 && a.getDaysSinceLastBilling() <= RECENT_WINDOW_DAYS)
+                .sorted(Comparator.comparingLong(RecentActivityResponse::getDaysSinceLastBilling))
+                .limit(RECENT_ACTIVITY_LIMIT)
+                .collect(Collectors.toList());
+
+        DashboardMetricsResponse response = new DashboardMetricsResponse();
+        response.setTotalMonthlySpend(totalMonthlySpend);
+        response.setActiveSubscriptions(activeSubscriptions.size());
+        response.setUpcomingBillCount(upcoming.size());
+        if (!upcoming.isEmpty()) {
+            response.setNextBillDate(upcoming.get(0).getNextBillingDate());
+            response.setNextBillAmount(upcoming.get(0).getPrice());
+        }
+        response.setMonthlyIncome(incomeRollupService.getTotalIncome(
+                user, today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth())));
+        response.setUpcomingBills(upcoming.stream().map(SubscriptionResponse::fromEntity).collect(Collectors.toList()));
+        response.setRecentActivity(recentActivity);
+        return response;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.model.AppUser;
+
+import java.util.Collection;
+
+/**
+ * Per-user revision counter covering the user's subscriptions, income and categories.
+ * Every write path bumps it in the writing transaction, so list endpoints can answer
+ * conditional requests from the counter alone.
+ */
+public interface DataRevisionService {
+
+    long currentRevision(AppUser user);
+
+    void markChanged(AppUser user);
+
+    void markChanged(Collection<Long> appUserIds);
+}
@@ -0,0 +1,37 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DataRevisionServiceImpl implements DataRevisionService {
+
+    private final AppUserRepository appUserRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long currentRevision(AppUser user) {
+        return appUserRepository.findDataRevisionById(user.getId()).orElse(0L);
+    }
+
+    @Override
+    @Transactional
+    public void markChanged(AppUser user) {
+        markChanged(List.of(user.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void markChanged(Collection<Long> appUserIds) {
+        if (!appUserIds.isEmpty()) {
+            appUserRepository.incrementDataRevision(appUserIds);
+        }
+    }
+}
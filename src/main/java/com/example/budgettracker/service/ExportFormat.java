@@ -0,0 +1,31 @@
+package com.example.budgettracker.service;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParameter(String value) {
+        if (value != null && value.toLowerCase(Locale.ROOT).equals("ndjson")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.model.AppUser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * Writes all of the user's income, newest first, to the given stream.
+     */
+    void exportIncome(AppUser user, ExportFormat format, OutputStream output) throws IOException;
+
+    /**
+     * Writes all of the user's subscriptions, ordered by name, to the given stream.
+     */
+    void exportSubscriptions(AppUser user, ExportFormat format, OutputStream output) throws IOException;
+}
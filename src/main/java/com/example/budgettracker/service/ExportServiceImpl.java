@@ -0,0 +1,107 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.IncomeResponse;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.util.CsvRecordWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports read rows through a database cursor and detach each entity once written,
+ * so heap use does not grow with the number of rows. The read-only transaction keeps
+ * the cursor open (PostgreSQL only honours the fetch size outside auto-commit).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+
+    private static final String[] INCOME_HEADER = {"id", "name", "amount", "incomeDate", "period", "category", "description"};
+    private static final String[] SUBSCRIPTION_HEADER = {"id", "name", "price", "period", "nextBillingDate", "active", "category"};
+
+    private final IncomeRepository incomeRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportIncome(AppUser user, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        ObjectWriter json = objectMapper.writerFor(IncomeResponse.class);
+        long rows = 0;
+
+        if (format == ExportFormat.CSV) {
+            csv.writeRecord((Object[]) INCOME_HEADER);
+        }
+        try (Stream<Income> stream = incomeRepository.streamByAppUser(user)) {
+            Iterator<Income> incomes = stream.iterator();
+            while (incomes.hasNext()) {
+                Income income = incomes.next();
+                if (format == ExportFormat.CSV) {
+                    csv.writeRecord(income.getId(), income.getName(), income.getAmount(), income.getIncomeDate(),
+                            income.getPeriod(), income.getCategory() != null ? income.getCategory().getName() : null,
+                            income.getDescription());
+                } else {
+                    writer.write(json.writeValueAsString(IncomeResponse.fromEntity(income)));
+                    writer.write('\n');
+                }
+                entityManager.detach(income);
+                rows++;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} income rows for user {}", rows, user.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSubscriptions(AppUser user, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        ObjectWriter json = objectMapper.writerFor(SubscriptionResponse.class);
+        long rows = 0;
+
+        if (format == ExportFormat.CSV) {
+            csv.writeRecord((Object[]) SUBSCRIPTION_HEADER);
+        }
+        try (Stream<Subscription> stream = subscriptionRepository.streamByAppUser(user)) {
+            Iterator<Subscription> subscriptions = stream.iterator();
+            while (subscriptions.hasNext()) {
+                Subscription subscription = subscriptions.next();
+                if (format == ExportFormat.CSV) {
+                    csv.writeRecord(subscription.getId(), subscription.getName(), subscription.getPrice(),
+                            subscription.getPeriod(), subscription.getNextBillingDate(), subscription.isActive(),
+                            subscription.getCategory() != null ? subscription.getCategory().getName() : null);
+                } else {
+                    writer.write(json.writeValueAsString(SubscriptionResponse.fromEntity(subscription)));
+                    writer.write('\n');
+                }
+                entityManager.detach(subscription);
+                rows++;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} subscriptions for user {}", rows, user.getId());
+    }
+}
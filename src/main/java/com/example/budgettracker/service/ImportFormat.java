@@ -0,0 +1,18 @@
+package com.example.budgettracker.service;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    OFX;
+
+    public static ImportFormat fromFilename(String filename) {
+        if (filename != null) {
+            String lower = filename.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+                return OFX;
+            }
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.ImportResultResponse;
+import com.example.budgettracker.model.AppUser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+
+    /**
+     * Streams income rows from a CSV (name, amount, date, period, description, category)
+     * or OFX export (credit transactions only) into the user's income.
+     */
+    ImportResultResponse importIncome(InputStream input, ImportFormat format, AppUser user) throws IOException;
+
+    /**
+     * Streams subscription rows from a CSV (name, price, period, nextBillingDate, category, active).
+     */
+    ImportResultResponse importSubscriptions(InputStream input, AppUser user) throws IOException;
+}
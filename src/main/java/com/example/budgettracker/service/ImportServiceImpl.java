@@ -0,0 +1,411 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.ImportResultResponse;
+import com.example.budgettracker.dto.IncomeRequest;
+import com.example.budgettracker.dto.SubscriptionRequest;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.util.CsvRecordReader;
+import com.example.budgettracker.util.OfxTransactionReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams import files row by row. Categories are resolved through a per-import name map
+ * (one query up front, one find-or-create per new name) and rows are written in batches,
+ * each in its own transaction, with the persistence context cleared in between so memory
+ * stays flat regardless of file size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportServiceImpl implements ImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String DEFAULT_INCOME_CATEGORY = "Income";
+    private static final String DEFAULT_SUBSCRIPTION_CATEGORY = "Subscriptions";
+    private static final String DEFAULT_OFX_NAME = "Imported income";
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+            "incomedate", "date",
+            "nextbilling", "nextbillingdate",
+            "memo", "description"
+    );
+
+    private final IncomeRepository incomeRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final CategoryService categoryService;
+    private final IncomeRollupService incomeRollupService;
+    private final DataRevisionService dataRevisionService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public ImportResultResponse importIncome(InputStream input, ImportFormat format, AppUser user) throws IOException {
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        return format == ImportFormat.OFX ? importIncomeOfx(reader, user) : importIncomeCsv(reader, user);
+    }
+
+    @Override
+    public ImportResultResponse importSubscriptions(InputStream input, AppUser user) throws IOException {
+        ImportResultResponse result = new ImportResultResponse();
+        CategoryResolver categories = new CategoryResolver(CategoryType.SUBSCRIPTION, user);
+        Batch<Subscription> batch = new Batch<>(subscriptionRepository, user, result,
+                saved -> categoryService.adjustActiveSubscriptionCounts(activeCountsByCategory(saved)));
+
+        try (CsvRecordReader csv = new CsvRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            CsvColumns columns = CsvColumns.of(csv.readRecord());
+            if (!columns.hasAll("name", "price", "period", "nextbillingdate")) {
+                result.addError(1, "Missing required columns: name, price, period, nextBillingDate");
+                return result;
+            }
+            long row = 1;
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                row++;
+                if (isBlank(record)) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    continue;
+                }
+                try {
+                    SubscriptionRequest request = new SubscriptionRequest();
+                    request.setName(columns.get(record, "name"));
+                    request.setPrice(parseAmount(columns.get(record, "price")));
+                    request.setPeriod(parsePeriod(columns.get(record, "period")));
+                    request.setNextBillingDate(parseDate(columns.get(record, "nextbillingdate"), DateTimeFormatter.ISO_LOCAL_DATE));
+                    request.setActive(parseActive(columns.get(record, "active")));
+
+                    String violations = validate(request);
+                    if (violations != null) {
+                        result.addError(row, violations);
+                        continue;
+                    }
+                    Subscription subscription = new Subscription();
+                    subscription.setName(request.getName());
+                    subscription.setPrice(request.getPrice());
+                    subscription.setPeriod(request.getPeriod());
+                    subscription.setNextBillingDate(request.getNextBillingDate());
+                    subscription.setActive(request.isActive());
+                    subscription.setAppUser(user);
+                    subscription.setCategory(categories.resolve(columns.get(record, "category"), DEFAULT_SUBSCRIPTION_CATEGORY));
+                    batch.add(row, subscription);
+                } catch (IllegalArgumentException ex) {
+                    result.addError(row, ex.getMessage());
+                }
+            }
+        }
+        batch.flush();
+        log.info("Imported {} subscriptions for user {} ({} failed)", result.getImported(), user.getId(), result.getFailed());
+        return result;
+    }
+
+    private ImportResultResponse importIncomeCsv(Reader reader, AppUser user) throws IOException {
+        ImportResultResponse result = new ImportResultResponse();
+        CategoryResolver categories = new CategoryResolver(CategoryType.INCOME, user);
+        Batch<Income> batch = new Batch<>(incomeRepository, user, result, incomeRollupService::recordAdded);
+
+        try (CsvRecordReader csv = new CsvRecordReader(reader)) {
+            CsvColumns columns = CsvColumns.of(csv.readRecord());
+            if (!columns.hasAll("name", "amount", "date")) {
+                result.addError(1, "Missing required columns: name, amount, date");
+                return result;
+            }
+            long row = 1;
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                row++;
+                if (isBlank(record)) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    continue;
+                }
+                try {
+                    IncomeRequest request = new IncomeRequest();
+                    request.setName(columns.get(record, "name"));
+                    request.setAmount(parseAmount(columns.get(record, "amount")));
+                    request.setIncomeDate(parseDate(columns.get(record, "date"), DateTimeFormatter.ISO_LOCAL_DATE));
+                    String period = columns.get(record, "period");
+                    if (period != null) {
+                        request.setPeriod(parsePeriod(period));
+                    }
+                    request.setDescription(columns.get(record, "description"));
+                    addIncome(request, columns.get(record, "category"), row, user, categories, batch, result);
+                } catch (IllegalArgumentException ex) {
+                    result.addError(row, ex.getMessage());
+                }
+            }
+        }
+        batch.flush();
+        log.info("Imported {} income rows for user {} ({} failed)", result.getImported(), user.getId(), result.getFailed());
+        return result;
+    }
+
+    private ImportResultResponse importIncomeOfx(Reader reader, AppUser user) throws IOException {
+        ImportResultResponse result = new ImportResultResponse();
+        CategoryResolver categories = new CategoryResolver(CategoryType.INCOME, user);
+        Batch<Income> batch = new Batch<>(incomeRepository, user, result, incomeRollupService::recordAdded);
+
+        try (OfxTransactionReader ofx = new OfxTransactionReader(reader)) {
+            long index = 0;
+            OfxTransactionReader.Transaction transaction;
+            while ((transaction = ofx.next()) != null) {
+                index++;
+                try {
+                    BigDecimal amount = parseAmount(transaction.getAmount());
+                    // Only credits are income; debits belong to spending
+                    if (amount == null || amount.signum() <= 0) {
+                        result.setSkipped(result.getSkipped() + 1);
+                        continue;
+                    }
+                    IncomeRequest request = new IncomeRequest();
+                    request.setName(firstNonBlank(transaction.getName(), transaction.getMemo(), DEFAULT_OFX_NAME));
+                    request.setAmount(amount);
+                    String posted = transaction.getDatePosted();
+                    request.setIncomeDate(parseDate(posted == null || posted.length() < 8 ? posted : posted.substring(0, 8),
+                            DateTimeFormatter.BASIC_ISO_DATE));
+                    request.setPeriod(Period.ONE_TIME);
+                    request.setDescription(transaction.getMemo());
+                    addIncome(request, null, index, user, categories, batch, result);
+                } catch (IllegalArgumentException ex) {
+                    result.addError(index, ex.getMessage());
+                }
+            }
+        }
+        batch.flush();
+        log.info("Imported {} OFX income transactions for user {} ({} failed)", result.getImported(), user.getId(), result.getFailed());
+        return result;
+    }
+
+    private void addIncome(IncomeRequest request, String categoryName, long row, AppUser user,
+                           CategoryResolver categories, Batch<Income> batch, ImportResultResponse result) {
+        String violations = validate(request);
+        if (violations != null) {
+            result.addError(row, violations);
+            return;
+        }
+        Income income = new Income();
+        income.setName(request.getName());
+        income.setAmount(request.getAmount());
+        income.setIncomeDate(request.getIncomeDate());
+        income.setPeriod(request.getPeriod());
+        income.setDescription(request.getDescription());
+        income.setAppUser(user);
+        income.setCategory(categories.resolve(categoryName, DEFAULT_INCOME_CATEGORY));
+        batch.add(row, income);
+    }
+
+    private <T> String validate(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.replace(" ", "");
+        if (normalized.indexOf('.') < 0) {
+            normalized = normalized.replace(',', '.');
+        }
+        try {
+            return new BigDecimal(normalized);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid amount '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String value, DateTimeFormatter format) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value, format);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid date '" + value + "'");
+        }
+    }
+
+    private static Period parsePeriod(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Period.valueOf(value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid period '" + value + "'");
+        }
+    }
+
+    private static boolean parseActive(String value) {
+        if (value == null) {
+            return true;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid active flag '" + value + "'");
+        };
+    }
+
+    private static boolean isBlank(List<String> record) {
+        return record.stream().allMatch(String::isBlank);
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static final class CsvColumns {
+
+        private final Map<String, Integer> index = new HashMap<>();
+
+        static CsvColumns of(List<String> header) {
+            CsvColumns columns = new CsvColumns();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    String name = normalize(header.get(i));
+                    columns.index.putIfAbsent(COLUMN_ALIASES.getOrDefault(name, name), i);
+                }
+            }
+            return columns;
+        }
+
+        boolean hasAll(String... names) {
+            for (String name : names) {
+                if (!index.containsKey(name)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String get(List<String> record, String name) {
+            Integer i = index.get(name);
+            if (i == null || i >= record.size()) {
+                return null;
+            }
+            String value = record.get(i).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    // One counter update per category per batch rather than one per row
+    private static Map<Long, Long> activeCountsByCategory(List<Subscription> subscriptions) {
+        return subscriptions.stream()
+                .filter(s -> s.isActive() && s.getCategory() != null)
+                .collect(Collectors.groupingBy(s -> s.getCategory().getId(), Collectors.counting()));
+    }
+
+    private final class CategoryResolver {
+
+        private final CategoryType type;
+        private final AppUser user;
+        private final Map<String, Category> byName;
+
+        CategoryResolver(CategoryType type, AppUser user) {
+            this.type = type;
+            this.user = user;
+            this.byName = categoryService.getCategoriesForUser(user).stream()
+                    .collect(Collectors.toMap(c -> c.getName().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        }
+
+        Category resolve(String name, String defaultName) {
+            String effective = name != null ? name : defaultName;
+            return byName.computeIfAbsent(effective.toLowerCase(Locale.ROOT),
+                    key -> categoryService.findOrCreateCategory(effective, type, user));
+        }
+    }
+
+    private final class Batch<T> {
+
+        private final JpaRepository<T, Long> repository;
+        private final AppUser user;
+        private final ImportResultResponse result;
+        private final Consumer<List<T>> afterSave;
+        private final List<T> entities = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(JpaRepository<T, Long> repository, AppUser user, ImportResultResponse result, Consumer<List<T>> afterSave) {
+            this.repository = repository;
+            this.user = user;
+            this.result = result;
+            this.afterSave = afterSave;
+        }
+
+        void add(long row, T entity) {
+            entities.add(entity);
+            rows.add(row);
+            if (entities.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (entities.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    afterSave.accept(repository.saveAll(entities));
+                    dataRevisionService.markChanged(user);
+                    entityManager.flush();
+                });
+                result.setImported(result.getImported() + entities.size());
+            } catch (RuntimeException ex) {
+                log.warn("Import batch of {} rows failed", entities.size(), ex);
+                rows.forEach(row -> result.addError(row, "Could not be saved"));
+            } finally {
+                entityManager.clear();
+                entities.clear();
+                rows.clear();
+            }
+        }
+    }
+}
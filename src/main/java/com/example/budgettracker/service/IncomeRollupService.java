@@ -0,0 +1,50 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.CategoryIncomeTotal;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Income;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IncomeRollupService {
+
+    /**
+     * Adds the incomes to their monthly buckets. Must run in the transaction that writes them.
+     */
+    void recordAdded(Collection<Income> incomes);
+
+    /**
+     * Removes the income's current amount, date and category from its monthly bucket.
+     * Call before deleting it or before changing any of those fields.
+     */
+    void recordRemoved(Income income);
+
+    /**
+     * Total income between the two dates (inclusive), read from the monthly rollups
+     * for whole months and from the income rows only for partial edge months.
+     */
+    BigDecimal getTotalIncome(AppUser user, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Income per month from {@code from} to {@code to} inclusive; months without income are zero.
+     */
+    List<MonthlyIncomeTotal> getMonthlyTotals(AppUser user, YearMonth from, YearMonth to);
+
+    /**
+     * Income entry count and total per category between the two dates (inclusive), split
+     * between rollups and income rows like {@link #getTotalIncome}; both dates null means
+     * all time. Keyed by category id, with a null key for uncategorized income.
+     */
+    Map<Long, CategoryIncomeTotal> getCategoryTotals(AppUser user, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recomputes all of the user's rollups from the income table.
+     */
+    void rebuild(AppUser user);
+}
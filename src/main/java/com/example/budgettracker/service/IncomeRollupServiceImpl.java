@@ -0,0 +1,163 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.CategoryIncomeTotal;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.IncomeMonthlyRollup;
+import com.example.budgettracker.repository.IncomeMonthlyRollupRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class IncomeRollupServiceImpl implements IncomeRollupService {
+
+    private final IncomeMonthlyRollupRepository rollupRepository;
+    private final IncomeRepository incomeRepository;
+
+    private record Bucket(Long categoryId, LocalDate monthStart) {
+    }
+
+    @Override
+    @Transactional
+    public void recordAdded(Collection<Income> incomes) {
+        if (incomes.isEmpty()) {
+            return;
+        }
+        AppUser user = incomes.iterator().next().getAppUser();
+        rollupRepository.lockOwner(user);
+        // Collapse the batch so each bucket costs one statement
+        Map<Bucket, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<Bucket, Long> counts = new HashMap<>();
+        for (Income income : incomes) {
+            Bucket bucket = bucketOf(income);
+            amounts.merge(bucket, income.getAmount(), BigDecimal::add);
+            counts.merge(bucket, 1L, Long::sum);
+        }
+        amounts.forEach((bucket, amount) -> apply(user, bucket, amount, counts.get(bucket)));
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoved(Income income) {
+        rollupRepository.lockOwner(income.getAppUser());
+        apply(income.getAppUser(), bucketOf(income), income.getAmount().negate(), -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalIncome(AppUser user, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return BigDecimal.ZERO;
+        }
+        LocalDate firstFullMonth = firstFullMonth(startDate);
+        LocalDate lastFullDay = lastFullDay(endDate);
+        if (firstFullMonth.isAfter(lastFullDay)) {
+            // No whole month in range
+            return incomeRepository.getTotalIncomeForPeriod(user, startDate, endDate);
+        }
+
+        BigDecimal total = rollupRepository.sumTotals(user, firstFullMonth, lastFullDay.withDayOfMonth(1));
+        if (startDate.isBefore(firstFullMonth)) {
+            total = total.add(incomeRepository.getTotalIncomeForPeriod(user, startDate, firstFullMonth.minusDays(1)));
+        }
+        if (endDate.isAfter(lastFullDay)) {
+            total = total.add(incomeRepository.getTotalIncomeForPeriod(user, lastFullDay.plusDays(1), endDate));
+        }
+        return total;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, CategoryIncomeTotal> getCategoryTotals(AppUser user, LocalDate startDate, LocalDate endDate) {
+        Map<Long, CategoryIncomeTotal> totals = new HashMap<>();
+        if (startDate == null && endDate == null) {
+            rollupRepository.findCategoryTotals(user).forEach(t -> totals.merge(t.getCategoryId(), t, CategoryIncomeTotal::plus));
+            return totals;
+        }
+        if (startDate.isAfter(endDate)) {
+            return totals;
+        }
+        LocalDate firstFullMonth = firstFullMonth(startDate);
+        LocalDate lastFullDay = lastFullDay(endDate);
+        if (firstFullMonth.isAfter(lastFullDay)) {
+            incomeRepository.aggregateByCategory(user, startDate, endDate)
+                    .forEach(t -> totals.merge(t.getCategoryId(), t, CategoryIncomeTotal::plus));
+            return totals;
+        }
+
+        List<CategoryIncomeTotal> parts = new ArrayList<>(
+                rollupRepository.findCategoryTotals(user, firstFullMonth, lastFullDay.withDayOfMonth(1)));
+        if (startDate.isBefore(firstFullMonth)) {
+            parts.addAll(incomeRepository.aggregateByCategory(user, startDate, firstFullMonth.minusDays(1)));
+        }
+        if (endDate.isAfter(lastFullDay)) {
+            parts.addAll(incomeRepository.aggregateByCategory(user, lastFullDay.plusDays(1), endDate));
+        }
+        parts.forEach(t -> totals.merge(t.getCategoryId(), t, CategoryIncomeTotal::plus));
+        return totals;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyIncomeTotal> getMonthlyTotals(AppUser user, YearMonth from, YearMonth to) {
+        Map<YearMonth, BigDecimal> totals = new HashMap<>();
+        rollupRepository.findMonthlyTotals(user, from.atDay(1), to.atDay(1))
+                .forEach(t -> totals.put(t.getMonth(), t.getTotal()));
+
+        List<MonthlyIncomeTotal> result = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            result.add(new MonthlyIncomeTotal(month, totals.getOrDefault(month, BigDecimal.ZERO)));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(AppUser user) {
+        // Held until commit: an income write waits for the rebuilt rollups, or the rebuild
+        // waits for it and then aggregates its committed row
+        rollupRepository.lockOwner(user);
+        rollupRepository.deleteByAppUser(user);
+        List<IncomeMonthlyRollup> rollups = incomeRepository.aggregateMonthlyByUser(user).stream()
+                .map(row -> new IncomeMonthlyRollup(user,
+                        (Long) row[2],
+                        LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1),
+                        (BigDecimal) row[3],
+                        ((Number) row[4]).longValue()))
+                .toList();
+        rollupRepository.saveAll(rollups);
+    }
+
+    private void apply(AppUser user, Bucket bucket, BigDecimal amount, long count) {
+        rollupRepository.addToBucket(user, bucket.categoryId(), bucket.monthStart(), amount, count);
+    }
+
+    private static Bucket bucketOf(Income income) {
+        // getId() on a lazy category proxy does not initialize it
+        Long categoryId = income.getCategory() != null ? income.getCategory().getId() : null;
+        return new Bucket(categoryId, Objects.requireNonNull(income.getIncomeDate()).withDayOfMonth(1));
+    }
+
+    private static LocalDate firstFullMonth(LocalDate startDate) {
+        return startDate.getDayOfMonth() == 1 ? startDate : startDate.withDayOfMonth(1).plusMonths(1);
+    }
+
+    private static LocalDate lastFullDay(LocalDate endDate) {
+        return endDate.getDayOfMonth() == endDate.lengthOfMonth() ? endDate : endDate.withDayOfMonth(1).minusDays(1);
+    }
+}
@@ -1,22 +1,35 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.dto.CursorPage;
 import com.example.budgettracker.dto.IncomeRequest;
+import com.example.budgettracker.dto.IncomeResponse;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
 import com.example.budgettracker.model.AppUser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.example.budgettracker.model.Income;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 public interface IncomeService {
 
     Income saveIncomeForUser(IncomeRequest incomeRequest, AppUser user);
 
-    Income updateIncomeForUser(Long incomeId, IncomeRequest incomeRequest, AppUser user);
+    /**
+     * Writes below take the version from the client's If-Match, or null for an unconditional write.
+     */
+    Income updateIncomeForUser(Long incomeId, IncomeRequest incomeRequest, AppUser user, Long expectedVersion);
+
+    /**
+     * Applies a JSON merge patch; only the supplied fields are validated and written.
+     */
+    Income patchIncomeForUser(Long incomeId, JsonNode patch, AppUser user, Long expectedVersion);
 
-    void deleteIncomeForUser(Long incomeId, AppUser user);
+    void deleteIncomeForUser(Long incomeId, AppUser user, Long expectedVersion);
 
     /**
      * Returns all income entries that belong to the given user.
@@ -26,7 +39,13 @@ public interface IncomeService {
     /**
      * Returns paginated income entries that belong to the given user.
      */
-    Page<Income> getIncomeForUser(AppUser user, Pageable pageable);
+    Page<IncomeResponse> getIncomeForUser(AppUser user, Pageable pageable);
+
+    /**
+     * Returns income entries newest first using keyset pagination.
+     * A null or blank cursor starts from the first page.
+     */
+    CursorPage<IncomeResponse> getIncomeForUser(AppUser user, String cursor, int size);
 
     /**
      * Get income entries for a specific date range.
@@ -37,4 +56,9 @@ public interface IncomeService {
      * Calculate total income for a specific period.
      */
     BigDecimal getTotalIncomeForPeriod(AppUser user, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    /**
+     * Income per month, oldest first, with zero for months without income.
+     */
+    List<MonthlyIncomeTotal> getMonthlyTotals(AppUser user, YearMonth from, YearMonth to);
+}
@@ -1,12 +1,21 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.dto.CursorPage;
 import com.example.budgettracker.dto.IncomeRequest;
+import com.example.budgettracker.dto.IncomeResponse;
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
 import com.example.budgettracker.exception.IncomeNotFoundException;
+import com.example.budgettracker.exception.StaleVersionException;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
 import com.example.budgettracker.model.Income;
 import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.util.KeysetCursor;
+import com.example.budgettracker.util.JsonMergePatcher;
 import com.example.budgettracker.util.SecurityUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @Service
@@ -26,6 +36,9 @@ public class IncomeServiceImpl implements IncomeService {
     private final IncomeRepository incomeRepository;
     private final CategoryService categoryService;
     private final SecurityUtils securityUtils;
+    private final IncomeRollupService incomeRollupService;
+    private final DataRevisionService dataRevisionService;
+    private final JsonMergePatcher jsonMergePatcher;
 
     @Override
     @Transactional
@@ -43,21 +56,28 @@ public class IncomeServiceImpl implements IncomeService {
         if (request.getCategoryId() != null) {
             category = categoryService.findByIdAndUser(request.getCategoryId(), user);
         } else {
-            category = categoryService.findOrCreateCategory(DEFAULT_INCOME_CATEGORY, user);
+            category = categoryService.findOrCreateCategory(DEFAULT_INCOME_CATEGORY, CategoryType.INCOME, user);
         }
         income.setCategory(category);
 
-        return incomeRepository.save(income);
+        Income saved = incomeRepository.save(income);
+        incomeRollupService.recordAdded(List.of(saved));
+        dataRevisionService.markChanged(user);
+        return saved;
     }
 
     @Override
     @Transactional
-    public Income updateIncomeForUser(Long incomeId, IncomeRequest request, AppUser user) {
+    public Income updateIncomeForUser(Long incomeId, IncomeRequest request, AppUser user, Long expectedVersion) {
         Income income = incomeRepository.findByIdAndAppUser(incomeId, user)
                 .orElseThrow(() -> new IncomeNotFoundException("Income not found with ID: " + incomeId));
+        requireVersion(income, expectedVersion);
 
         securityUtils.validateResourceOwnership(income.getAppUser(), user, "Income", incomeId);
 
+        // Move the old amount out of its monthly bucket before date, amount or category change
+        incomeRollupService.recordRemoved(income);
+
         income.setName(request.getName());
         income.setAmount(request.getAmount());
         income.setIncomeDate(request.getIncomeDate());
@@ -69,22 +89,80 @@ public class IncomeServiceImpl implements IncomeService {
             Category category = categoryService.findByIdAndUser(request.getCategoryId(), user);
             income.setCategory(category);
         } else {
-            Category category = categoryService.findOrCreateCategory(DEFAULT_INCOME_CATEGORY, user);
+            Category category = categoryService.findOrCreateCategory(DEFAULT_INCOME_CATEGORY, CategoryType.INCOME, user);
             income.setCategory(category);
         }
 
-        return incomeRepository.save(income);
+        // Flush so the returned version is the one written, even inside a caller's transaction
+        Income saved = incomeRepository.saveAndFlush(income);
+        incomeRollupService.recordAdded(List.of(saved));
+        dataRevisionService.markChanged(user);
+        return saved;
     }
 
     @Override
     @Transactional
-    public void deleteIncomeForUser(Long incomeId, AppUser user) {
+    public Income patchIncomeForUser(Long incomeId, JsonNode patch, AppUser user, Long expectedVersion) {
         Income income = incomeRepository.findByIdAndAppUser(incomeId, user)
                 .orElseThrow(() -> new IncomeNotFoundException("Income not found with ID: " + incomeId));
+        requireVersion(income, expectedVersion);
+
+        IncomeRequest current = new IncomeRequest();
+        current.setName(income.getName());
+        current.setAmount(income.getAmount());
+        current.setIncomeDate(income.getIncomeDate());
+        current.setPeriod(income.getPeriod());
+        current.setDescription(income.getDescription());
+        current.setCategoryId(income.getCategory() != null ? income.getCategory().getId() : null);
+        IncomeRequest patched = jsonMergePatcher.apply(current, patch);
+
+        // Only amount, date and category move the income between monthly buckets
+        boolean rollupChanges = patch.has("amount") || patch.has("incomeDate") || patch.has("categoryId");
+        if (rollupChanges) {
+            incomeRollupService.recordRemoved(income);
+        }
+
+        // Unchanged values leave the entity clean, so dynamic update writes only what moved
+        income.setName(patched.getName());
+        income.setAmount(patched.getAmount());
+        income.setIncomeDate(patched.getIncomeDate());
+        income.setPeriod(patched.getPeriod());
+        income.setDescription(patched.getDescription());
+        if (patch.has("categoryId")) {
+            if (patched.getCategoryId() == null) {
+                income.setCategory(categoryService.findOrCreateCategory(DEFAULT_INCOME_CATEGORY, CategoryType.INCOME, user));
+            } else if (income.getCategory() == null || !patched.getCategoryId().equals(income.getCategory().getId())) {
+                income.setCategory(categoryService.findByIdAndUser(patched.getCategoryId(), user));
+            }
+        }
+
+        incomeRepository.flush();
+        if (rollupChanges) {
+            incomeRollupService.recordAdded(List.of(income));
+        }
+        dataRevisionService.markChanged(user);
+        return income;
+    }
+
+    @Override
+    @Transactional
+    public void deleteIncomeForUser(Long incomeId, AppUser user, Long expectedVersion) {
+        Income income = incomeRepository.findByIdAndAppUser(incomeId, user)
+                .orElseThrow(() -> new IncomeNotFoundException("Income not found with ID: " + incomeId));
+        requireVersion(income, expectedVersion);
 
         securityUtils.validateResourceOwnership(income.getAppUser(), user, "Income", incomeId);
 
+        incomeRollupService.recordRemoved(income);
         incomeRepository.delete(income);
+        dataRevisionService.markChanged(user);
+    }
+
+    // The versioned UPDATE/DELETE at flush still catches a write committed after this check
+    private static void requireVersion(Income income, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(income.getVersion())) {
+            throw new StaleVersionException("Income", income.getId(), expectedVersion);
+        }
     }
 
     @Override
@@ -95,8 +173,23 @@ public class IncomeServiceImpl implements IncomeService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Income> getIncomeForUser(AppUser user, Pageable pageable) {
-        return incomeRepository.findByAppUserOrderByIncomeDateDesc(user, pageable);
+    public Page<IncomeResponse> getIncomeForUser(AppUser user, Pageable pageable) {
+        return incomeRepository.findResponsesByAppUser(user, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<IncomeResponse> getIncomeForUser(AppUser user, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<IncomeResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = incomeRepository.findResponsesByAppUser(user, limit);
+        } else {
+            KeysetCursor before = KeysetCursor.decode(cursor);
+            rows = incomeRepository.findResponsesByAppUserBefore(user, before.sortKeyAsDate(), before.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, i -> new KeysetCursor(i.getIncomeDate().toString(), i.getId()).encode());
     }
 
     @Override
@@ -108,6 +201,12 @@ public class IncomeServiceImpl implements IncomeService {
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalIncomeForPeriod(AppUser user, LocalDate startDate, LocalDate endDate) {
-        return incomeRepository.getTotalIncomeForPeriod(user, startDate, endDate);
+        return incomeRollupService.getTotalIncome(user, startDate, endDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyIncomeTotal> getMonthlyTotals(AppUser user, YearMonth from, YearMonth to) {
+        return incomeRollupService.getMonthlyTotals(user, from, to);
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.ProjectedOccurrence;
+import com.example.budgettracker.dto.ProjectionResponse;
+import com.example.budgettracker.model.AppUser;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+public interface ProjectionService {
+
+    /**
+     * Lazily expands recurring income (from its income date) and active subscriptions
+     * (from their next billing date) into dated occurrences within [from, to],
+     * merged in chronological order.
+     */
+    Stream<ProjectedOccurrence> projectOccurrences(AppUser user, LocalDate from, LocalDate to);
+
+    /**
+     * Totals of projected income and subscription spend within [from, to].
+     */
+    ProjectionResponse getProjection(AppUser user, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,133 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.ProjectedOccurrence;
+import com.example.budgettracker.dto.ProjectionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.util.Recurrence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads the user's recurring items once and expands them on demand. Totals multiply
+ * each amount by an O(1) occurrence count; occurrence listings merge the per-item
+ * series through a priority queue, so only the occurrences actually consumed are built.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectionServiceImpl implements ProjectionService {
+
+    private final IncomeRepository incomeRepository;
+    private final SubscriptionRepository subscriptionRepository;
+
+    private record Series(int order, ProjectedOccurrence.Type type, Long sourceId, String name,
+                          BigDecimal amount, Recurrence recurrence) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<ProjectedOccurrence> projectOccurrences(AppUser user, LocalDate from, LocalDate to) {
+        List<Series> series = loadSeries(user, from, to);
+        Iterator<ProjectedOccurrence> merged = new MergingIterator(series, from, to);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectionResponse getProjection(AppUser user, LocalDate from, LocalDate to) {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal spend = BigDecimal.ZERO;
+        for (Series series : loadSeries(user, from, to)) {
+            BigDecimal total = series.amount().multiply(BigDecimal.valueOf(series.recurrence().count(from, to)));
+            if (series.type() == ProjectedOccurrence.Type.INCOME) {
+                income = income.add(total);
+            } else {
+                spend = spend.add(total);
+            }
+        }
+
+        ProjectionResponse response = new ProjectionResponse();
+        response.setStartDate(from);
+        response.setEndDate(to);
+        response.setProjectedIncome(income);
+        response.setProjectedSpend(spend);
+        response.setNet(income.subtract(spend));
+        return response;
+    }
+
+    private List<Series> loadSeries(AppUser user, LocalDate from, LocalDate to) {
+        List<Series> series = new ArrayList<>();
+        incomeRepository.findProjectableByUser(user, from, to).forEach(i -> series.add(new Series(series.size(),
+                ProjectedOccurrence.Type.INCOME, i.getId(), i.getName(), i.getAmount(),
+                new Recurrence(i.getIncomeDate(), i.getPeriod()))));
+        subscriptionRepository.findActiveDueByAppUser(user, to).stream()
+                .filter(s -> s.getPrice() != null && s.getPeriod() != null)
+                .forEach(s -> series.add(new Series(series.size(),
+                        ProjectedOccurrence.Type.SUBSCRIPTION, s.getId(), s.getName(), s.getPrice(),
+                        new Recurrence(s.getNextBillingDate(), s.getPeriod()))));
+        return series;
+    }
+
+    private static final class MergingIterator implements Iterator<ProjectedOccurrence> {
+
+        private static final class Cursor {
+            final Series series;
+            final Iterator<LocalDate> dates;
+            LocalDate current;
+
+            Cursor(Series series, Iterator<LocalDate> dates) {
+                this.series = series;
+                this.dates = dates;
+                this.current = dates.next();
+            }
+        }
+
+        private final PriorityQueue<Cursor> queue = new PriorityQueue<>(
+                Comparator.comparing((Cursor c) -> c.current).thenComparingInt(c -> c.series.order()));
+
+        MergingIterator(List<Series> series, LocalDate from, LocalDate to) {
+            for (Series s : series) {
+                Iterator<LocalDate> dates = s.recurrence().between(from, to).iterator();
+                if (dates.hasNext()) {
+                    queue.add(new Cursor(s, dates));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public ProjectedOccurrence next() {
+            Cursor cursor = queue.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            Series s = cursor.series;
+            ProjectedOccurrence occurrence = new ProjectedOccurrence(s.type(), s.sourceId(), s.name(), cursor.current, s.amount());
+            if (cursor.dates.hasNext()) {
+                cursor.current = cursor.dates.next();
+                queue.add(cursor);
+            }
+            return occurrence;
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.dto.BillCalendarResponse;
+import com.example.budgettracker.dto.CursorPage;
 import com.example.budgettracker.dto.SubscriptionRequest;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.dto.UpcomingBillResponse;
 import com.example.budgettracker.model.AppUser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.example.budgettracker.model.Subscription;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.YearMonth;
+
 public interface SubscriptionService {
 
     Subscription saveSubscriptionForUser(SubscriptionRequest subscriptionRequest, AppUser user);
 
-    Subscription updateSubscriptionForUser(Long subscriptionId, SubscriptionRequest subscriptionRequest, AppUser user);
+    /**
+     * Writes below take the version from the client's If-Match, or null for an unconditional write.
+     */
+    Subscription updateSubscriptionForUser(Long subscriptionId, SubscriptionRequest subscriptionRequest, AppUser user, Long expectedVersion);
+
+    /**
+     * Applies a JSON merge patch; only the supplied fields are validated and written.
+     */
+    Subscription patchSubscriptionForUser(Long subscriptionId, JsonNode patch, AppUser user, Long expectedVersion);
 
-    void deleteSubscriptionForUser(Long subscriptionId, AppUser user);
+    void deleteSubscriptionForUser(Long subscriptionId, AppUser user, Long expectedVersion);
 
     /**
      * Returns all subscriptions that belong to the given user.
@@ -22,5 +37,22 @@ public interface SubscriptionService {
     /**
      * Returns paginated subscriptions that belong to the given user.
      */
-    Page<Subscription> getSubscriptionsForUser(AppUser user, Pageable pageable);
+    Page<SubscriptionResponse> getSubscriptionsForUser(AppUser user, Pageable pageable);
+
+    /**
+     * Returns subscriptions ordered by name using keyset pagination.
+     * A null or blank cursor starts from the first page.
+     */
+    CursorPage<SubscriptionResponse> getSubscriptionsForUser(AppUser user, String cursor, int size);
+
+    /**
+     * Bills of active subscriptions due from today through the given number of days,
+     * with recurring subscriptions expanded into every occurrence, ordered by due date.
+     */
+    java.util.List<UpcomingBillResponse> getUpcomingBills(AppUser user, int days);
+
+    /**
+     * Bills of active subscriptions falling in the given month, grouped by day.
+     */
+    BillCalendarResponse getBillCalendar(AppUser user, YearMonth month);
 }
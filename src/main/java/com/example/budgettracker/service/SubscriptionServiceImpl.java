@@ -1,27 +1,54 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.dto.BillCalendarResponse;
+import com.example.budgettracker.dto.CursorPage;
+import com.example.budgettracker.dto.DeletedSubscription;
 import com.example.budgettracker.dto.SubscriptionRequest;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.dto.UpcomingBillResponse;
+import com.example.budgettracker.exception.StaleVersionException;
 import com.example.budgettracker.exception.SubscriptionNotFoundException;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
 import com.example.budgettracker.model.Subscription;
 import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.util.KeysetCursor;
+import com.example.budgettracker.util.Recurrence;
+import com.example.budgettracker.util.JsonMergePatcher;
 import com.example.budgettracker.util.SecurityUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class SubscriptionServiceImpl implements SubscriptionService {
 
     private static final String DEFAULT_SUBSCRIPTION_CATEGORY = "Subscriptions";
+    static final int MAX_UPCOMING_DAYS = 366;
     
     private final SubscriptionRepository subscriptionRepository;
     private final CategoryService categoryService;
     private final SecurityUtils securityUtils;
+    private final DataRevisionService dataRevisionService;
+    private final JsonMergePatcher jsonMergePatcher;
 
     @Override
     @Transactional
@@ -33,28 +60,33 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setNextBillingDate(request.getNextBillingDate());
         subscription.setActive(request.isActive());
         subscription.setAppUser(user);
-        // maintain bidirectional relationship
-        user.getSubscriptions().add(subscription);
 
         // If no category is specified, use the default subscription category
         Category category;
         if (request.getCategoryId() != null) {
             category = categoryService.findByIdAndUser(request.getCategoryId(), user);
         } else {
-            category = categoryService.findOrCreateCategory(DEFAULT_SUBSCRIPTION_CATEGORY, user);
+            category = categoryService.findOrCreateCategory(DEFAULT_SUBSCRIPTION_CATEGORY, CategoryType.SUBSCRIPTION, user);
         }
         subscription.setCategory(category);
 
-        return subscriptionRepository.save(subscription);
+        // maintain bidirectional relationship (without loading the collection); only once the
+        // category is set, or a lookup query's auto-flush would cascade an INSERT without it
+        user.addSubscription(subscription);
+
+        Subscription saved = subscriptionRepository.save(subscription);
+        moveActiveCount(null, countedCategoryId(saved));
+        dataRevisionService.markChanged(user);
+        return saved;
     }
 
     @Override
     @Transactional
-    public Subscription updateSubscriptionForUser(Long subscriptionId, SubscriptionRequest request, AppUser user) {
-        Subscription subscription = subscriptionRepository.findById(subscriptionId)
-                .orElseThrow(() -> new SubscriptionNotFoundException(subscriptionId));
-
-        securityUtils.validateResourceOwnership(subscription.getAppUser(), user, "subscription", subscriptionId);
+    public Subscription updateSubscriptionForUser(Long subscriptionId, SubscriptionRequest request, AppUser user, Long expectedVersion) {
+        Subscription subscription = subscriptionRepository.findByIdAndAppUser(subscriptionId, user)
+                .orElseThrow(() -> notFoundUnlessForeign(subscriptionId, user));
+        requireVersion(subscription, expectedVersion);
+        Long countedBefore = countedCategoryId(subscription);
 
         subscription.setName(request.getName());
         subscription.setPrice(request.getPrice());
@@ -67,25 +99,107 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             subscription.setCategory(category);
         } else {
             // Align with create behavior: use default "Subscriptions" category when none specified
-            Category defaultCategory = categoryService.findOrCreateCategory(DEFAULT_SUBSCRIPTION_CATEGORY, user);
+            Category defaultCategory = categoryService.findOrCreateCategory(DEFAULT_SUBSCRIPTION_CATEGORY, CategoryType.SUBSCRIPTION, user);
             subscription.setCategory(defaultCategory);
         }
 
-        return subscriptionRepository.save(subscription);
+        // Flush so the returned version is the one written, even inside a caller's transaction
+        Subscription saved = subscriptionRepository.saveAndFlush(subscription);
+        moveActiveCount(countedBefore, countedCategoryId(saved));
+        dataRevisionService.markChanged(user);
+        return saved;
     }
 
     @Override
     @Transactional
-    public void deleteSubscriptionForUser(Long subscriptionId, AppUser user) {
-        Subscription subscription = subscriptionRepository.findById(subscriptionId)
-                .orElseThrow(() -> new SubscriptionNotFoundException(subscriptionId));
+    public Subscription patchSubscriptionForUser(Long subscriptionId, JsonNode patch, AppUser user, Long expectedVersion) {
+        Subscription subscription = subscriptionRepository.findByIdAndAppUser(subscriptionId, user)
+                .orElseThrow(() -> notFoundUnlessForeign(subscriptionId, user));
+        requireVersion(subscription, expectedVersion);
+        Long countedBefore = countedCategoryId(subscription);
+
+        SubscriptionRequest current = new SubscriptionRequest();
+        current.setName(subscription.getName());
+        current.setPrice(subscription.getPrice());
+        current.setPeriod(subscription.getPeriod());
+        current.setNextBillingDate(subscription.getNextBillingDate());
+        current.setActive(subscription.isActive());
+        current.setCategoryId(subscription.getCategory() != null ? subscription.getCategory().getId() : null);
+        SubscriptionRequest patched = jsonMergePatcher.apply(current, patch);
+
+        // Unchanged values leave the entity clean, so dynamic update writes only what moved
+        subscription.setName(patched.getName());
+        subscription.setPrice(patched.getPrice());
+        subscription.setPeriod(patched.getPeriod());
+        subscription.setNextBillingDate(patched.getNextBillingDate());
+        subscription.setActive(patched.isActive());
+        if (patch.has("categoryId")) {
+            if (patched.getCategoryId() == null) {
+                subscription.setCategory(categoryService.findOrCreateCategory(DEFAULT_SUBSCRIPTION_CATEGORY, CategoryType.SUBSCRIPTION, user));
+            } else if (subscription.getCategory() == null || !patched.getCategoryId().equals(subscription.getCategory().getId())) {
+                subscription.setCategory(categoryService.findByIdAndUser(patched.getCategoryId(), user));
+            }
+        }
 
-        securityUtils.validateResourceOwnership(subscription.getAppUser(), user, "subscription", subscriptionId);
+        subscriptionRepository.flush();
+        moveActiveCount(countedBefore, countedCategoryId(subscription));
+        dataRevisionService.markChanged(user);
+        return subscription;
+    }
+
+    @Override
+    @Transactional
+    public void deleteSubscriptionForUser(Long subscriptionId, AppUser user, Long expectedVersion) {
+        // The category and active flag come from the row the delete removed, not from an earlier read
+        Optional<DeletedSubscription> deleted = subscriptionRepository.deleteReturning(subscriptionId, user, expectedVersion);
+        if (deleted.isEmpty()) {
+            // The row may still be there under a newer version
+            if (expectedVersion != null && subscriptionRepository.findOwnerIdById(subscriptionId)
+                    .filter(ownerId -> ownerId.equals(user.getId())).isPresent()) {
+                throw new StaleVersionException("Subscription", subscriptionId, expectedVersion);
+            }
+            throw notFoundUnlessForeign(subscriptionId, user);
+        }
+        // maintain bidirectional relationship (without loading the collection), before the
+        // counter update flushes the session
+        user.removeSubscription(subscriptionId);
 
-        subscriptionRepository.delete(subscription);
+        DeletedSubscription removed = deleted.get();
+        moveActiveCount(removed.isActive() ? removed.getCategoryId() : null, null);
+        dataRevisionService.markChanged(user);
+    }
+
+    // The category whose active count includes this subscription, or null when it counts in none
+    private static Long countedCategoryId(Subscription subscription) {
+        return subscription.isActive() && subscription.getCategory() != null ? subscription.getCategory().getId() : null;
+    }
+
+    private void moveActiveCount(Long fromCategoryId, Long toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        if (fromCategoryId != null) {
+            deltas.put(fromCategoryId, -1L);
+        }
+        if (toCategoryId != null) {
+            deltas.put(toCategoryId, 1L);
+        }
+        categoryService.adjustActiveSubscriptionCounts(deltas);
+    }
+
+    // The versioned UPDATE at flush still catches a write committed after this check
+    private static void requireVersion(Subscription subscription, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(subscription.getVersion())) {
+            throw new StaleVersionException("Subscription", subscription.getId(), expectedVersion);
+        }
+    }
 
-        // maintain bidirectional relationship
-        user.getSubscriptions().remove(subscription);
+    // Only reached when an owner-scoped query matched nothing: a row owned by someone else is 403, a missing one 404
+    private SubscriptionNotFoundException notFoundUnlessForeign(Long subscriptionId, AppUser user) {
+        subscriptionRepository.findOwnerIdById(subscriptionId)
+                .ifPresent(ownerId -> securityUtils.validateResourceOwnership(ownerId, user, "subscription", subscriptionId));
+        return new SubscriptionNotFoundException(subscriptionId);
     }
 
     @Override
@@ -97,7 +211,64 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Subscription> getSubscriptionsForUser(AppUser user, Pageable pageable) {
-        return subscriptionRepository.findByAppUser(user, pageable);
+    public Page<SubscriptionResponse> getSubscriptionsForUser(AppUser user, Pageable pageable) {
+        return subscriptionRepository.findResponsesByAppUser(user, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<SubscriptionResponse> getSubscriptionsForUser(AppUser user, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<SubscriptionResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = subscriptionRepository.findResponsesByAppUser(user, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = subscriptionRepository.findResponsesByAppUserAfter(user, after.getSortKey(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, s -> new KeysetCursor(s.getName(), s.getId()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UpcomingBillResponse> getUpcomingBills(AppUser user, int days) {
+        LocalDate today = LocalDate.now();
+        return billsBetween(user, today, today.plusDays(Math.max(0, Math.min(days, MAX_UPCOMING_DAYS))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BillCalendarResponse getBillCalendar(AppUser user, YearMonth month) {
+        Map<LocalDate, List<UpcomingBillResponse>> byDay = billsBetween(user, month.atDay(1), month.atEndOfMonth()).stream()
+                .collect(Collectors.groupingBy(UpcomingBillResponse::getDueDate, TreeMap::new, Collectors.toList()));
+
+        List<BillCalendarResponse.Day> days = byDay.entrySet().stream()
+                .map(e -> new BillCalendarResponse.Day(e.getKey(), sumPrices(e.getValue()), e.getValue()))
+                .collect(Collectors.toList());
+
+        BillCalendarResponse response = new BillCalendarResponse();
+        response.setMonth(month);
+        response.setTotal(days.stream().map(BillCalendarResponse.Day::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add));
+        response.setDays(days);
+        return response;
+    }
+
+    // One indexed range query; recurring subscriptions are expanded in memory
+    private List<UpcomingBillResponse> billsBetween(AppUser user, LocalDate from, LocalDate to) {
+        return subscriptionRepository.findActiveDueByAppUser(user, to).stream()
+                .filter(s -> s.getPeriod() != null && s.getNextBillingDate() != null)
+                .flatMap(s -> new Recurrence(s.getNextBillingDate(), s.getPeriod()).between(from, to)
+                        .map(date -> UpcomingBillResponse.fromEntity(s, date)))
+                .sorted(Comparator.comparing(UpcomingBillResponse::getDueDate)
+                        .thenComparing(UpcomingBillResponse::getName, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
+    }
+
+    private static BigDecimal sumPrices(List<UpcomingBillResponse> bills) {
+        return bills.stream()
+                .map(UpcomingBillResponse::getPrice)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.budgettracker.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a JSON merge patch (RFC 7386) to a request DTO holding the resource's current
+ * state. Only the fields present in the patch are validated, so a partial update is not
+ * rejected over a field it leaves alone (such as a billing date now in the past).
+ * Unknown fields and nulls for primitive fields are rejected rather than ignored or
+ * read as the type's default; nulls for other required fields fail validation.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonMergePatcher {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public <T> T apply(T current, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Merge patch must be a JSON object");
+        }
+        try {
+            objectMapper.readerForUpdating(current)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+                    .readValue(patch);
+        } catch (UnrecognizedPropertyException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field '" + ex.getPropertyName() + "'");
+        } catch (MismatchedInputException ex) {
+            String field = ex.getPath().isEmpty() ? null : ex.getPath().get(ex.getPath().size() - 1).getFieldName();
+            if (field != null && patch.path(field).isNull()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Field '" + field + "' cannot be null");
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid merge patch");
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid merge patch");
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(current).stream()
+                .filter(violation -> patch.has(violation.getPropertyPath().toString()))
+                .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return current;
+    }
+}
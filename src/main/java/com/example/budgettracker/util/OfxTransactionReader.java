@@ -0,0 +1,99 @@
+package com.example.budgettracker.util;
+
+import lombok.Data;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Streaming reader for {@code <STMTTRN>} blocks in OFX bank exports. Handles both SGML (OFX 1.x,
+ * unclosed leaf tags) and XML (OFX 2.x) files by tokenizing on tags rather than lines.
+ */
+public class OfxTransactionReader implements Closeable {
+
+    @Data
+    public static class Transaction {
+        private String type;
+        private String datePosted;
+        private String amount;
+        private String name;
+        private String memo;
+    }
+
+    private final BufferedReader reader;
+    private int pushedBack = -1;
+
+    public OfxTransactionReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the next transaction, or null when no more transactions remain.
+     */
+    public Transaction next() throws IOException {
+        Transaction current = null;
+        String tag;
+        while ((tag = readTag()) != null) {
+            String value = readValue();
+            if (tag.equals("STMTTRN")) {
+                current = new Transaction();
+            } else if (tag.equals("/STMTTRN") && current != null) {
+                return current;
+            } else if (current != null && !value.isEmpty()) {
+                switch (tag) {
+                    case "TRNTYPE" -> current.setType(value);
+                    case "DTPOSTED" -> current.setDatePosted(value);
+                    case "TRNAMT" -> current.setAmount(value);
+                    case "NAME" -> current.setName(value);
+                    case "MEMO" -> current.setMemo(value);
+                    default -> { }
+                }
+            }
+        }
+        return null;
+    }
+
+    private String readTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip header lines and text outside tags
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String readValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            value.append((char) c);
+        }
+        if (c == '<') {
+            pushedBack = c;
+        }
+        return value.toString().trim();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
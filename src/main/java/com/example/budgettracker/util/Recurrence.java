@@ -0,0 +1,105 @@
+package com.example.budgettracker.util;
+
+import com.example.budgettracker.model.Period;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A series of dates starting at an anchor and repeating every period.
+ * The n-th occurrence is always computed from the anchor rather than from the previous
+ * occurrence, so month-based series clamp to short months without drifting
+ * (Jan 31 -> Feb 28/29 -> Mar 31) and a Feb 29 yearly series lands on Feb 28 outside
+ * leap years, matching the clamping in ui/src/utils/dateCalculations.ts.
+ * Finding the first occurrence in a window is O(1), so projecting far ahead costs
+ * only the occurrences actually consumed.
+ */
+@Value
+public class Recurrence {
+
+    LocalDate anchor;
+    Period period;
+
+    public LocalDate dateAt(long index) {
+        return switch (period) {
+            case DAILY -> anchor.plusDays(index);
+            case WEEKLY -> anchor.plusWeeks(index);
+            case MONTHLY -> anchor.plusMonths(index);
+            case QUARTERLY -> anchor.plusMonths(index * 3);
+            case YEARLY -> anchor.plusYears(index);
+            case ONE_TIME -> anchor;
+        };
+    }
+
+    /**
+     * Lazily enumerates the occurrences falling within [from, to], in order.
+     */
+    public Stream<LocalDate> between(LocalDate from, LocalDate to) {
+        long first = firstIndexOnOrAfter(from);
+        long last = lastIndexOnOrBefore(to);
+        return LongStream.rangeClosed(first, last).mapToObj(this::dateAt);
+    }
+
+    /**
+     * Number of occurrences within [from, to], without enumerating them.
+     */
+    public long count(LocalDate from, LocalDate to) {
+        return Math.max(0, lastIndexOnOrBefore(to) - firstIndexOnOrAfter(from) + 1);
+    }
+
+    /**
+     * The first occurrence on or after the date; for one-time series, the anchor itself.
+     */
+    public LocalDate nextOnOrAfter(LocalDate date) {
+        return period == Period.ONE_TIME ? anchor : dateAt(firstIndexOnOrAfter(date));
+    }
+
+    long firstIndexOnOrAfter(LocalDate date) {
+        if (!date.isAfter(anchor)) {
+            return 0;
+        }
+        if (period == Period.ONE_TIME) {
+            return 1;
+        }
+        long index = estimateIndex(date);
+        while (index > 0 && !dateAt(index - 1).isBefore(date)) {
+            index--;
+        }
+        while (dateAt(index).isBefore(date)) {
+            index++;
+        }
+        return index;
+    }
+
+    long lastIndexOnOrBefore(LocalDate date) {
+        if (date.isBefore(anchor)) {
+            return -1;
+        }
+        if (period == Period.ONE_TIME) {
+            return 0;
+        }
+        long index = estimateIndex(date);
+        while (!dateAt(index + 1).isAfter(date)) {
+            index++;
+        }
+        while (index >= 0 && dateAt(index).isAfter(date)) {
+            index--;
+        }
+        return index;
+    }
+
+    // Close to the index of the occurrence at or just before the date; callers correct by a step or two
+    private long estimateIndex(LocalDate date) {
+        return switch (period) {
+            case DAILY -> ChronoUnit.DAYS.between(anchor, date);
+            case WEEKLY -> ChronoUnit.DAYS.between(anchor, date) / 7;
+            case MONTHLY -> ChronoUnit.MONTHS.between(anchor, date);
+            case QUARTERLY -> ChronoUnit.MONTHS.between(anchor, date) / 3;
+            case YEARLY -> ChronoUnit.YEARS.between(anchor, date);
+            case ONE_TIME -> 0;
+        };
+    }
+}
@@ -0,0 +1,4 @@
+-- Composite indexes backing keyset (seek) pagination
+-- Subscriptions are listed by (name, id), income newest first by (income_date, id)
+CREATE INDEX idx_subscription_user_name_id ON subscription(app_user_id, name, id);
+CREATE INDEX idx_income_user_date_id ON income(app_user_id, income_date, id);
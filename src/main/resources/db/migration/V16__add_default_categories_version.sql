@@ -0,0 +1,3 @@
+-- Track which version of the default category set has been seeded per user
+-- so login can skip reconciling categories in the common case
+ALTER TABLE app_user ADD COLUMN default_categories_version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- Switch primary keys from IDENTITY (BIGSERIAL) to pooled sequences so Hibernate
+-- can batch inserts. Hibernate reserves blocks of 50 ids per nextval call and treats
+-- the returned value as the top of the block, so each sequence starts at MAX(id) + 50.
+
+CREATE SEQUENCE app_user_seq INCREMENT BY 50 OWNED BY app_user.id;
+SELECT setval('app_user_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM app_user), false);
+ALTER TABLE app_user ALTER COLUMN id SET DEFAULT nextval('app_user_seq');
+DROP SEQUENCE IF EXISTS app_user_id_seq;
+
+CREATE SEQUENCE category_seq INCREMENT BY 50 OWNED BY category.id;
+SELECT setval('category_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM category), false);
+ALTER TABLE category ALTER COLUMN id SET DEFAULT nextval('category_seq');
+DROP SEQUENCE IF EXISTS category_id_seq;
+
+CREATE SEQUENCE subscription_seq INCREMENT BY 50 OWNED BY subscription.id;
+SELECT setval('subscription_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM subscription), false);
+ALTER TABLE subscription ALTER COLUMN id SET DEFAULT nextval('subscription_seq');
+DROP SEQUENCE IF EXISTS subscription_id_seq;
+
+CREATE SEQUENCE income_seq INCREMENT BY 50 OWNED BY income.id;
+SELECT setval('income_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM income), false);
+ALTER TABLE income ALTER COLUMN id SET DEFAULT nextval('income_seq');
+DROP SEQUENCE IF EXISTS income_id_seq;
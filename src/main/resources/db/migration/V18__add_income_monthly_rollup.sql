@@ -0,0 +1,26 @@
+-- Per-user, per-month, per-category income totals so range and trend queries read
+-- a few rollup rows instead of every income row. Maintained by the application on
+-- each income write; IncomeRollupRebuildJob can recompute it from the income table.
+
+CREATE SEQUENCE income_monthly_rollup_seq INCREMENT BY 50;
+
+CREATE TABLE income_monthly_rollup (
+    id BIGINT PRIMARY KEY DEFAULT nextval('income_monthly_rollup_seq'),
+    app_user_id BIGINT NOT NULL REFERENCES app_user(id),
+    category_id BIGINT REFERENCES category(id),
+    month_start DATE NOT NULL,
+    total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    entry_count BIGINT NOT NULL DEFAULT 0
+);
+
+ALTER SEQUENCE income_monthly_rollup_seq OWNED BY income_monthly_rollup.id;
+
+-- One bucket per (user, category, month); uncategorized income shares the 0 bucket
+CREATE UNIQUE INDEX ux_income_rollup_user_category_month
+    ON income_monthly_rollup (app_user_id, COALESCE(category_id, 0), month_start);
+CREATE INDEX idx_income_rollup_user_month ON income_monthly_rollup (app_user_id, month_start);
+
+INSERT INTO income_monthly_rollup (app_user_id, category_id, month_start, total, entry_count)
+SELECT app_user_id, category_id, CAST(date_trunc('month', income_date) AS DATE), SUM(amount), COUNT(*)
+FROM income
+GROUP BY app_user_id, category_id, date_trunc('month', income_date);
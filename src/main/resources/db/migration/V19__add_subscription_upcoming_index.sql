@@ -0,0 +1,3 @@
+-- Backs the upcoming-bills and calendar range query:
+-- WHERE app_user_id = ? AND is_active = true AND next_billing_date <= ?
+CREATE INDEX idx_subscription_user_active_next_billing ON subscription(app_user_id, is_active, next_billing_date);
@@ -0,0 +1,8 @@
+-- Lease rows for leader election of scheduled jobs across nodes
+CREATE TABLE job_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255)
+);
+
+INSERT INTO job_lock (name, locked_until) VALUES ('billing-roll-forward', TIMESTAMP '1970-01-01 00:00:00');
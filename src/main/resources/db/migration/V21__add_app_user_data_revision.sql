@@ -0,0 +1,2 @@
+-- Per-user revision counter backing ETags on the list endpoints
+ALTER TABLE app_user ADD COLUMN data_revision BIGINT NOT NULL DEFAULT 0;
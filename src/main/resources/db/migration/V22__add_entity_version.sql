@@ -0,0 +1,5 @@
+-- Optimistic locking: @Version column on every BaseEntity table
+ALTER TABLE app_user ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE category ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE subscription ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE income ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,29 @@
+-- Category names are unique per user regardless of case; this index is the conflict
+-- target for the INSERT ... ON CONFLICT DO NOTHING in CategoryRepositoryImpl.
+-- Case-only duplicates from earlier races are folded into the oldest row first.
+
+CREATE TEMP TABLE category_duplicate AS
+SELECT id, keep_id
+FROM (SELECT id, MIN(id) OVER (PARTITION BY app_user_id, lower(name)) AS keep_id FROM category) c
+WHERE id <> keep_id;
+
+UPDATE subscription s SET category_id = d.keep_id
+FROM category_duplicate d WHERE s.category_id = d.id;
+
+UPDATE income i SET category_id = d.keep_id
+FROM category_duplicate d WHERE i.category_id = d.id;
+
+INSERT INTO income_monthly_rollup (app_user_id, category_id, month_start, total, entry_count)
+SELECT r.app_user_id, d.keep_id, r.month_start, SUM(r.total), SUM(r.entry_count)
+FROM income_monthly_rollup r JOIN category_duplicate d ON r.category_id = d.id
+GROUP BY r.app_user_id, d.keep_id, r.month_start
+ON CONFLICT (app_user_id, COALESCE(category_id, 0), month_start)
+DO UPDATE SET total = income_monthly_rollup.total + EXCLUDED.total,
+              entry_count = income_monthly_rollup.entry_count + EXCLUDED.entry_count;
+
+DELETE FROM income_monthly_rollup WHERE category_id IN (SELECT id FROM category_duplicate);
+DELETE FROM category WHERE id IN (SELECT id FROM category_duplicate);
+
+DROP TABLE category_duplicate;
+
+CREATE UNIQUE INDEX uk_category_user_lower_name ON category (app_user_id, lower(name));
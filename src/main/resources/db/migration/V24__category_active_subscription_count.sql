@@ -0,0 +1,7 @@
+-- Denormalized active-subscription count per category, maintained by the subscription service
+ALTER TABLE category ADD COLUMN active_subscription_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE category c
+SET active_subscription_count = (
+    SELECT COUNT(*) FROM subscription s WHERE s.category_id = c.id AND s.is_active = true
+);
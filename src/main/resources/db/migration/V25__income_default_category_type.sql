@@ -0,0 +1,5 @@
+-- Categories auto-created for income were stored as SUBSCRIPTION and so never appeared in income listings
+UPDATE category c SET category_type = 'INCOME'
+WHERE c.category_type = 'SUBSCRIPTION'
+  AND EXISTS (SELECT 1 FROM income i WHERE i.category_id = c.id)
+  AND NOT EXISTS (SELECT 1 FROM subscription s WHERE s.category_id = c.id);
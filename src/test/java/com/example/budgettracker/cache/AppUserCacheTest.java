@@ -0,0 +1,76 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppUserCacheTest {
+
+    private AppUserCache appUserCache;
+    private AtomicInteger loads;
+    private AppUser storedUser;
+
+    @BeforeEach
+    void setUp() {
+        appUserCache = new AppUserCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+        storedUser = TestDataBuilder.createTestUser();
+    }
+
+    private Optional<AppUser> load(String sub) {
+        loads.incrementAndGet();
+        return sub.equals(storedUser.getGoogleSub()) ? Optional.of(storedUser) : Optional.empty();
+    }
+
+    @Test
+    void get_shouldHitCacheOnSecondLookup() {
+        appUserCache.get("test-sub", this::load);
+        Optional<AppUser> second = appUserCache.get("test-sub", this::load);
+
+        assertTrue(second.isPresent());
+        assertEquals(1L, second.get().getId());
+        assertEquals(1, loads.get());
+        assertEquals(1, appUserCache.stats().hitCount());
+        assertEquals(1, appUserCache.stats().missCount());
+    }
+
+    @Test
+    void get_shouldReturnIndependentCopies() {
+        AppUser first = appUserCache.get("test-sub", this::load).orElseThrow();
+        first.setCurrency("EUR");
+
+        AppUser second = appUserCache.get("test-sub", this::load).orElseThrow();
+
+        assertNotSame(first, second);
+        assertNotSame(storedUser, second);
+        assertEquals("USD", second.getCurrency());
+    }
+
+    @Test
+    void get_shouldNotCacheMissingUsers() {
+        assertTrue(appUserCache.get("unknown", this::load).isEmpty());
+        assertTrue(appUserCache.get("unknown", this::load).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_shouldForceReload() {
+        appUserCache.get("test-sub", this::load);
+        storedUser.setCurrency("EUR");
+
+        appUserCache.evict("test-sub");
+        AppUser reloaded = appUserCache.get("test-sub", this::load).orElseThrow();
+
+        assertEquals("EUR", reloaded.getCurrency());
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.budgettracker.cache;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryCacheTest {
+
+    private CategoryCache categoryCache;
+    private AtomicInteger loads;
+    private AppUser user;
+    private Category streaming;
+
+    @BeforeEach
+    void setUp() {
+        categoryCache = new CategoryCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+        user = TestDataBuilder.createTestUser();
+        streaming = new Category("Streaming", user);
+        streaming.setId(7L);
+    }
+
+    private List<Category> load(AppUser owner) {
+        loads.incrementAndGet();
+        return List.of(streaming);
+    }
+
+    @Test
+    void findById_shouldLoadSnapshotOnce() {
+        assertEquals("Streaming", categoryCache.findById(user, 7L, this::load).orElseThrow().getName());
+        assertTrue(categoryCache.findById(user, 8L, this::load).isEmpty());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, categoryCache.stats().hitCount());
+    }
+
+    @Test
+    void findByName_shouldIgnoreCase() {
+        assertEquals(7L, categoryCache.findByName(user, "STREAMING", this::load).orElseThrow().getId());
+        assertTrue(categoryCache.findByName(user, "Music", this::load).isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reads_shouldReturnIndependentCopiesOwnedByTheCaller() {
+        Category first = categoryCache.findById(user, 7L, this::load).orElseThrow();
+        first.setName("Renamed");
+
+        Category second = categoryCache.findById(user, 7L, this::load).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("Streaming", second.getName());
+        assertSame(user, second.getAppUser());
+    }
+
+    @Test
+    void evict_shouldForceReload() {
+        categoryCache.findById(user, 7L, this::load);
+        categoryCache.evict(user.getId());
+        categoryCache.findById(user, 7L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.budgettracker.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SpaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shellShouldBeRevalidatedWithETag() throws Exception {
+        byte[] index = new ClassPathResource("static/index.html").getContentAsByteArray();
+
+        MvcResult result = mockMvc.perform(get("/login"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+        assertArrayEquals(index, result.getResponse().getContentAsByteArray());
+
+        String etag = result.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        mockMvc.perform(get("/login").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shellShouldBeServedGzippedWhenAccepted() throws Exception {
+        byte[] index = new ClassPathResource("static/index.html").getContentAsByteArray();
+
+        MvcResult result = mockMvc.perform(get("/login").header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", org.hamcrest.Matchers.hasItem("Accept-Encoding")))
+                .andReturn();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(index, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void shellShouldNotBeGzippedWhenRefused() throws Exception {
+        mockMvc.perform(get("/login").header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void acceptEncodingShouldHonourQualityValues() {
+        assertTrue(SpaController.acceptsGzip("gzip"));
+        assertTrue(SpaController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(SpaController.acceptsGzip("br, *"));
+        assertFalse(SpaController.acceptsGzip("gzip;q=0"));
+        assertFalse(SpaController.acceptsGzip("gzip; q=0.0, *;q=1"));
+        assertFalse(SpaController.acceptsGzip("*;q=0"));
+        assertFalse(SpaController.acceptsGzip("identity"));
+        assertFalse(SpaController.acceptsGzip(null));
+    }
+
+    @Test
+    void hashedAssetsShouldBeCachedAsImmutable() throws Exception {
+        File assets = new ClassPathResource("static/assets").getFile();
+        String asset = Objects.requireNonNull(assets.list())[0];
+
+        mockMvc.perform(get("/assets/" + asset))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+}
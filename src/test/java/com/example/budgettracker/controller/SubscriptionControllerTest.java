@@ -3,6 +3,9 @@ package com.example.budgettracker.controller;
 import com.example.budgettracker.dto.SubscriptionRequest;
 import com.example.budgettracker.model.*;
 import com.example.budgettracker.service.AppUserService;
+import com.example.budgettracker.service.DataRevisionService;
+import com.example.budgettracker.service.ExportService;
+import com.example.budgettracker.service.ImportService;
 import com.example.budgettracker.service.SubscriptionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,7 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -44,6 +48,15 @@ class SubscriptionControllerTest {
     @MockitoBean
     private AppUserService appUserService;
 
+    @MockitoBean
+    private ImportService importService;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private DataRevisionService dataRevisionService;
+
     @MockitoBean
     private com.example.budgettracker.service.GoogleOidcUserService googleOidcUserService; // Required by SecurityConfig
 
@@ -127,7 +140,7 @@ class SubscriptionControllerTest {
         updatedSubscription.setId(1L);
         updatedSubscription.setName("Updated");
         updatedSubscription.setPrice(validRequest.getPrice());
-        when(subscriptionService.updateSubscriptionForUser(eq(1L), any(SubscriptionRequest.class), eq(mockAppUser)))
+        when(subscriptionService.updateSubscriptionForUser(eq(1L), any(SubscriptionRequest.class), eq(mockAppUser), isNull()))
                 .thenReturn(updatedSubscription);
 
         mockMvc.perform(put("/api/subscriptions/1")
@@ -1,10 +1,12 @@
 package com.example.budgettracker.exception;
 
 import com.example.budgettracker.dto.ErrorResponse;
+import com.example.budgettracker.model.Subscription;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +63,34 @@ class GlobalExceptionHandlerTest {
         assertEquals("You don't have permission to access this resource", body.getMessage());
     }
 
+    @Test
+    void testHandleStaleVersion() {
+        StaleVersionException exception = new StaleVersionException("Subscription", 123L, 4L);
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleStaleVersion(exception);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        ErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(412, body.getStatus());
+        assertEquals("Precondition failed", body.getError());
+        assertTrue(body.getMessage().contains("123"));
+    }
+
+    @Test
+    void testHandleOptimisticLockingFailure() {
+        ObjectOptimisticLockingFailureException exception =
+                new ObjectOptimisticLockingFailureException(Subscription.class, 123L);
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleOptimisticLockingFailure(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(409, body.getStatus());
+        assertEquals("Conflict", body.getError());
+    }
+
     @Test
     void testHandleGenericException() {
         RuntimeException exception = new RuntimeException("Something went wrong");
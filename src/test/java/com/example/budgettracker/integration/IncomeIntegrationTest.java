@@ -0,0 +1,430 @@
+package com.example.budgettracker.integration;
+
+import com.example.budgettracker.dto.IncomeRequest;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.service.ExportFormat;
+import com.example.budgettracker.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class IncomeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExportService exportService;
+
+    private AppUser testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new AppUser("test-google-sub", "Test User", "test@example.com", "http://example.com/pic.jpg");
+        testUser = appUserRepository.save(testUser);
+    }
+
+    private Income saveIncome(String name, String amount, LocalDate incomeDate) {
+        Income income = new Income();
+        income.setName(name);
+        income.setAmount(new BigDecimal(amount));
+        income.setIncomeDate(incomeDate);
+        income.setPeriod(Period.ONE_TIME);
+        income.setAppUser(testUser);
+        return incomeRepository.save(income);
+    }
+
+    @Test
+    void shouldPageIncomeByCursorNewestFirst() throws Exception {
+        LocalDate today = LocalDate.now();
+        saveIncome("Older", "100.00", today.minusDays(10));
+        saveIncome("Same day A", "200.00", today.minusDays(1));
+        saveIncome("Same day B", "300.00", today.minusDays(1));
+
+        String firstPage = mockMvc.perform(get("/api/income")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Same day B"))
+                .andExpect(jsonPath("$.content[1].name").value("Same day A"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/income")
+                        .param("cursor", nextCursor)
+                        .param("size", "2")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Older"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldStillSupportOffsetPagination() throws Exception {
+        saveIncome("Salary", "5000.00", LocalDate.now().minusDays(2));
+
+        mockMvc.perform(get("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void shouldImportCsvAndReportInvalidRows() throws Exception {
+        LocalDate date = LocalDate.now().minusDays(3);
+        String csv = "Name,Amount,Income Date,Period,Category\n"
+                + "Salary," + "4000.00," + date + ",MONTHLY,Work\n"
+                + "\"Bonus, Q1\",500," + date + ",,\n"
+                + "Broken,not-a-number," + date + ",,\n"
+                + ",,,,\n";
+        MockMultipartFile file = new MockMultipartFile("file", "income.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/income/import").file(file)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(4));
+
+        assert incomeRepository.findResponsesByAppUser(testUser, org.springframework.data.domain.Limit.of(10)).size() == 2;
+    }
+
+    @Test
+    void shouldImportOfxCreditsOnly() throws Exception {
+        String ofx = """
+                OFXHEADER:100
+                <OFX><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240115<TRNAMT>2500.00<NAME>ACME PAYROLL</STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240116<TRNAMT>-12.50<NAME>COFFEE</STMTTRN>
+                </BANKTRANLIST></OFX>
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "statement.ofx", "application/x-ofx", ofx.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/income/import").file(file)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+    }
+
+    @Test
+    void shouldExportIncomeAsCsvNewestFirst() throws Exception {
+        LocalDate today = LocalDate.now();
+        saveIncome("Older", "100.00", today.minusDays(10));
+        saveIncome("Salary, March", "2500.00", today.minusDays(1));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportIncome(testUser, ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assert lines.length == 3;
+        assert lines[0].equals("id,name,amount,incomeDate,period,category,description");
+        assert lines[1].contains(",\"Salary, March\",2500.00," + today.minusDays(1) + ",ONE_TIME,,");
+        assert lines[2].contains(",Older,100.00,");
+    }
+
+    @Test
+    void shouldExportIncomeAsNdjson() throws Exception {
+        saveIncome("Salary", "2500.00", LocalDate.now().minusDays(1));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportIncome(testUser, ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assert lines.length == 1;
+        assert objectMapper.readTree(lines[0]).get("name").asText().equals("Salary");
+    }
+
+    @Test
+    void shouldStreamExportAsAttachment() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/income/export")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"income.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(org.hamcrest.Matchers.startsWith("id,name,amount")));
+    }
+
+    @Test
+    void shouldKeepMonthlyRollupsInStepWithIncomeWrites() throws Exception {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.minusMonths(1);
+
+        IncomeRequest request = new IncomeRequest();
+        request.setName("Salary");
+        request.setAmount(new BigDecimal("3000.00"));
+        request.setIncomeDate(lastMonth.plusDays(4));
+        String created = mockMvc.perform(post("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        request.setName("Bonus");
+        request.setAmount(new BigDecimal("500.00"));
+        request.setIncomeDate(lastMonth);
+        mockMvc.perform(post("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Move the salary into this month
+        request.setName("Salary");
+        request.setAmount(new BigDecimal("3200.00"));
+        request.setIncomeDate(thisMonth);
+        mockMvc.perform(put("/api/income/" + id)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/income/monthly-totals")
+                        .param("from", lastMonth.toString().substring(0, 7))
+                        .param("to", thisMonth.toString().substring(0, 7))
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].total").value(500.00))
+                .andExpect(jsonPath("$[1].total").value(3200.00));
+
+        // Whole last month from rollups plus the partial current month from rows
+        mockMvc.perform(get("/api/income/total")
+                        .param("startDate", lastMonth.toString())
+                        .param("endDate", LocalDate.now().toString())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3700.00"));
+
+        mockMvc.perform(delete("/api/income/" + id)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/income/monthly-totals")
+                        .param("from", thisMonth.toString().substring(0, 7))
+                        .param("to", thisMonth.toString().substring(0, 7))
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].month").value(thisMonth.toString().substring(0, 7)))
+                .andExpect(jsonPath("$[0].total").value(0));
+    }
+
+    @Test
+    void shouldListIncomeCategoriesWithCountsAndTotals() throws Exception {
+        Category salary = new Category("Job Salary", testUser);
+        salary.setCategoryType(CategoryType.INCOME);
+        salary = categoryRepository.save(salary);
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.minusMonths(1);
+
+        for (Object[] entry : new Object[][]{{"3000.00", lastMonth.plusDays(4)}, {"500.00", lastMonth}, {"1000.00", thisMonth}}) {
+            IncomeRequest request = new IncomeRequest();
+            request.setName("Pay");
+            request.setAmount(new BigDecimal((String) entry[0]));
+            request.setIncomeDate((LocalDate) entry[1]);
+            request.setCategoryId(salary.getId());
+            mockMvc.perform(post("/api/income")
+                            .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/categories")
+                        .param("type", "income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].incomeCount").value(3))
+                .andExpect(jsonPath("$[0].incomeTotal").value(4500.00));
+
+        // Partial last month from rows, the rest from rollups
+        mockMvc.perform(get("/api/categories")
+                        .param("type", "income")
+                        .param("startDate", lastMonth.plusDays(1).toString())
+                        .param("endDate", LocalDate.now().toString())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].incomeCount").value(2))
+                .andExpect(jsonPath("$[0].incomeTotal").value(4000.00));
+
+        mockMvc.perform(get("/api/categories")
+                        .param("type", "income")
+                        .param("startDate", lastMonth.toString())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldListDefaultIncomeCategoryWithItsTotals() throws Exception {
+        IncomeRequest request = new IncomeRequest();
+        request.setName("Bonus");
+        request.setAmount(new BigDecimal("250.00"));
+        request.setIncomeDate(LocalDate.now());
+        mockMvc.perform(post("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.categoryName").value("Income"));
+
+        mockMvc.perform(get("/api/categories")
+                        .param("type", "income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Income"))
+                .andExpect(jsonPath("$[0].incomeCount").value(1))
+                .andExpect(jsonPath("$[0].incomeTotal").value(250.00));
+    }
+
+    @Test
+    void shouldRejectReversedMonthRange() throws Exception {
+        mockMvc.perform(get("/api/income/monthly-totals")
+                        .param("from", "2024-05")
+                        .param("to", "2024-01")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldPatchIncomeAndMoveItsRollup() throws Exception {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.minusMonths(1);
+
+        IncomeRequest request = new IncomeRequest();
+        request.setName("Salary");
+        request.setAmount(new BigDecimal("3000.00"));
+        request.setIncomeDate(lastMonth.plusDays(4));
+        request.setDescription("Original");
+        String created = mockMvc.perform(post("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(patch("/api/income/" + id)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"amount\": 3100.00, \"incomeDate\": \"" + thisMonth + "\", \"description\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Salary"))
+                .andExpect(jsonPath("$.amount").value(3100.00))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        mockMvc.perform(get("/api/income/monthly-totals")
+                        .param("from", lastMonth.toString().substring(0, 7))
+                        .param("to", thisMonth.toString().substring(0, 7))
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].total").value(0))
+                .andExpect(jsonPath("$[1].total").value(3100.00));
+
+        mockMvc.perform(patch("/api/income/" + id)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"amount\": -5}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.amount").exists());
+    }
+
+    @Test
+    void shouldRejectWritesAgainstStaleVersion() throws Exception {
+        IncomeRequest request = new IncomeRequest();
+        request.setName("Salary");
+        request.setAmount(new BigDecimal("3000.00"));
+        request.setIncomeDate(LocalDate.now());
+        MvcResult created = mockMvc.perform(post("/api/income")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn();
+        String url = "/api/income/" + objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        request.setAmount(new BigDecimal("3100.00"));
+        mockMvc.perform(put(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"0\"")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        request.setAmount(new BigDecimal("2900.00"));
+        mockMvc.perform(put(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"0\"")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-Match", "W/\"1\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+    }
+}
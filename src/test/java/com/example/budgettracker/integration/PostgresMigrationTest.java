@@ -0,0 +1,107 @@
+package com.example.budgettracker.integration;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.service.AppUserService;
+import com.example.budgettracker.service.CategoryService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL, where the case-insensitive category index and
+ * the native upserts live; the H2 tests build their schema from the entities instead.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/testfixtures",
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AppUserService appUserService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void defaultsAndUpsertsReuseCaseVariantsOfExistingCategories() {
+        AppUser user = appUserRepository.save(new AppUser("pg-case-sub", "Case User", "case@example.com", null));
+        Category utilities = categoryRepository.save(new Category("UTILITIES", user));
+        OidcUser login = mock(OidcUser.class);
+        when(login.getSubject()).thenReturn("pg-case-sub");
+        when(login.getFullName()).thenReturn("Case User");
+        when(login.getEmail()).thenReturn("case@example.com");
+
+        appUserService.processUserLogin(login);
+        Category found = transactionTemplate.execute(status -> categoryService.findOrCreateCategory(
+                "utilities", CategoryType.SUBSCRIPTION, appUserRepository.findById(user.getId()).orElseThrow()));
+
+        assertEquals(utilities.getId(), found.getId());
+        assertEquals(1, categoryRepository.findByAppUserOrderByNameAsc(user).stream()
+                .filter(c -> c.getName().equalsIgnoreCase("Utilities")).count());
+        // The losing side of a creation race: ON CONFLICT on the lower(name) index, no exception
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status ->
+                categoryRepository.insertIfAbsent("Utilities", CategoryType.SUBSCRIPTION, user)));
+    }
+
+    @Test
+    void caseInsensitiveIndexMigrationFoldsExistingDuplicates() {
+        // A schema of its own, migrated up to just before V23 and seeded with case-only duplicates
+        migrateFoldCheckSchema("22");
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbc.update("INSERT INTO fold_check.app_user (id, google_sub, full_name, email) VALUES (1, 'fold-sub', 'Fold', 'fold@example.com')");
+        jdbc.update("INSERT INTO fold_check.category (id, name, locked, category_type, app_user_id) VALUES " +
+                "(1, 'Streaming', false, 'SUBSCRIPTION', 1), (2, 'STREAMING', false, 'SUBSCRIPTION', 1)");
+        jdbc.update("INSERT INTO fold_check.subscription (id, name, price, period, next_billing_date, is_active, category_id, app_user_id) " +
+                "VALUES (1, 'Netflix', 9.99, 'MONTHLY', DATE '2030-01-01', true, 2, 1)");
+
+        migrateFoldCheckSchema("latest");
+
+        assertEquals(List.of("Streaming"), jdbc.queryForList("SELECT name FROM fold_check.category", String.class));
+        assertEquals(1L, jdbc.queryForObject("SELECT category_id FROM fold_check.subscription WHERE id = 1", Long.class));
+        assertEquals(1L, jdbc.queryForObject("SELECT active_subscription_count FROM fold_check.category WHERE id = 1", Long.class));
+    }
+
+    private static void migrateFoldCheckSchema(String target) {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .schemas("fold_check")
+                .locations("classpath:db/migration", "classpath:db/testfixtures")
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
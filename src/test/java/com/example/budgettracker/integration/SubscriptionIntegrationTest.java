@@ -15,12 +15,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -214,4 +219,262 @@ public class SubscriptionIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isForbidden()); // Should be 403 due to CSRF protection
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldPageSubscriptionsByCursor() throws Exception {
+        for (String name : new String[]{"Charlie", "Alpha", "Bravo"}) {
+            Subscription subscription = new Subscription();
+            subscription.setName(name);
+            subscription.setPrice(new BigDecimal("5.00"));
+            subscription.setPeriod(Period.MONTHLY);
+            subscription.setNextBillingDate(LocalDate.now().plusMonths(1));
+            subscription.setAppUser(testUser);
+            subscription.setCategory(testCategory);
+            subscriptionRepository.save(subscription);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/subscriptions")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Alpha"))
+                .andExpect(jsonPath("$.content[1].name").value("Bravo"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/subscriptions")
+                        .param("cursor", nextCursor)
+                        .param("size", "2")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Charlie"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/subscriptions")
+                        .param("cursor", "not-a-cursor")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldImportSubscriptionsFromCsv() throws Exception {
+        LocalDate next = LocalDate.now().plusMonths(1);
+        String csv = "name,price,period,next_billing_date,category,active\n"
+                + "Netflix,15.99,monthly," + next + ",entertainment,true\n"
+                + "Gym,30.00,fortnightly," + next + ",,\n";
+        MockMultipartFile file = new MockMultipartFile("file", "subscriptions.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/subscriptions/import").file(file)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid period 'fortnightly'"));
+
+        // Category names match existing categories case-insensitively
+        assert subscriptionRepository.findByAppUser(testUser).get(0).getCategory().getId().equals(testCategory.getId());
+    }
+
+    @Test
+    void shouldStreamSubscriptionExportAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/subscriptions/export")
+                        .param("format", "ndjson")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The long export timeout is set on this request only, not as the global async default
+        assert result.getRequest().getAsyncContext().getTimeout() == Duration.ofMinutes(10).toMillis();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"subscriptions.ndjson\""))
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+    }
+
+    @Test
+    void shouldRejectWritesAgainstStaleVersion() throws Exception {
+        Subscription subscription = saveSubscription("Gym", "30.00", Period.MONTHLY, LocalDate.now().plusDays(3), true);
+        String url = "/api/subscriptions/" + subscription.getId();
+
+        mockMvc.perform(patch(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"0\"")
+                        .content("{\"price\": 35.00}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // A second tab still holding version 0
+        mockMvc.perform(patch(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"0\"")
+                        .content("{\"active\": false}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition failed"));
+
+        mockMvc.perform(delete(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete(url)
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+    }
+
+    private Subscription saveSubscription(String name, String price, Period period, LocalDate nextBillingDate, boolean active) {
+        Subscription subscription = new Subscription();
+        subscription.setName(name);
+        subscription.setPrice(new BigDecimal(price));
+        subscription.setPeriod(period);
+        subscription.setNextBillingDate(nextBillingDate);
+        subscription.setActive(active);
+        subscription.setAppUser(testUser);
+        subscription.setCategory(testCategory);
+        return subscriptionRepository.save(subscription);
+    }
+
+    @Test
+    void shouldListUpcomingBillsWithRecurringOccurrences() throws Exception {
+        LocalDate today = LocalDate.now();
+        saveSubscription("Weekly box", "20.00", Period.WEEKLY, today.plusDays(1), true);
+        saveSubscription("Streaming", "9.99", Period.MONTHLY, today.plusDays(3), true);
+        saveSubscription("Paused", "5.00", Period.MONTHLY, today.plusDays(2), false);
+        saveSubscription("Far away", "99.00", Period.YEARLY, today.plusDays(60), true);
+
+        mockMvc.perform(get("/api/subscriptions/upcoming")
+                        .param("days", "14")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].name").value("Weekly box"))
+                .andExpect(jsonPath("$[0].dueDate").value(today.plusDays(1).toString()))
+                .andExpect(jsonPath("$[1].name").value("Streaming"))
+                .andExpect(jsonPath("$[2].name").value("Weekly box"))
+                .andExpect(jsonPath("$[2].dueDate").value(today.plusDays(8).toString()))
+                .andExpect(jsonPath("$[2].categoryName").value("Entertainment"));
+    }
+
+    @Test
+    void shouldGroupBillCalendarByDay() throws Exception {
+        YearMonth month = YearMonth.now().plusMonths(2);
+        saveSubscription("Rent", "1000.00", Period.MONTHLY, YearMonth.now().plusMonths(1).atDay(5), true);
+        saveSubscription("Phone", "30.00", Period.MONTHLY, YearMonth.now().plusMonths(1).atDay(5), true);
+        saveSubscription("Insurance", "400.00", Period.YEARLY, YearMonth.now().plusMonths(1).atDay(20), true);
+
+        mockMvc.perform(get("/api/subscriptions/calendar")
+                        .param("month", month.toString())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value(month.toString()))
+                .andExpect(jsonPath("$.total").value(1030.00))
+                .andExpect(jsonPath("$.days.length()").value(1))
+                .andExpect(jsonPath("$.days[0].date").value(month.atDay(5).toString()))
+                .andExpect(jsonPath("$.days[0].bills.length()").value(2))
+                .andExpect(jsonPath("$.days[0].bills[0].name").value("Phone"));
+    }
+
+    @Test
+    void shouldAnswerUnchangedListWithNotModifiedUntilDataChanges() throws Exception {
+        saveSubscription("Netflix", "15.99", Period.MONTHLY, LocalDate.now().plusDays(3), true);
+
+        String etag = mockMvc.perform(get("/api/subscriptions")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().stringValues("ETag", org.hamcrest.Matchers.iterableWithSize(1)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/subscriptions")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(delete("/api/subscriptions/" + subscriptionRepository.findByAppUser(testUser).get(0).getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub"))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/subscriptions")
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void shouldPauseSubscriptionWithMergePatch() throws Exception {
+        // A billing date in the past would fail full validation, but the patch does not touch it
+        Subscription subscription = saveSubscription("Gym", "30.00", Period.MONTHLY, LocalDate.now().minusDays(3), true);
+
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"active\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false))
+                .andExpect(jsonPath("$.name").value("Gym"))
+                .andExpect(jsonPath("$.price").value(30.00))
+                .andExpect(jsonPath("$.categoryName").value("Entertainment"));
+    }
+
+    @Test
+    void shouldRejectInvalidPatchedFields() throws Exception {
+        Subscription subscription = saveSubscription("Gym", "30.00", Period.MONTHLY, LocalDate.now().plusDays(3), true);
+
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 0, \"name\": \"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation failed"))
+                .andExpect(jsonPath("$.fieldErrors.price").exists())
+                .andExpect(jsonPath("$.fieldErrors.name").exists());
+
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("[1, 2]"))
+                .andExpect(status().isBadRequest());
+
+        // Neither pauses the subscription nor is silently dropped
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"active\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Field 'active' cannot be null"));
+
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"active\": false, \"nmae\": \"Typo\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown field 'nmae'"));
+
+        mockMvc.perform(patch("/api/subscriptions/" + subscription.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject("test-google-sub")))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.price").exists());
+
+        assert subscriptionRepository.findById(subscription.getId()).orElseThrow().isActive();
+    }
+}
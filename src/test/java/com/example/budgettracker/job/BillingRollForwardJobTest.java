@@ -0,0 +1,145 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.dto.OverdueBilling;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.service.DataRevisionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@Transactional
+class BillingRollForwardJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private JobLockManager jobLockManager;
+
+    @Autowired
+    private DataRevisionService dataRevisionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rollForward_shouldAdvanceOverdueRecurringSubscriptionsToNextDueDate() {
+        AppUser user = appUserRepository.save(new AppUser("roll-sub", "Roll", "roll@example.com", null));
+        Subscription monthly = saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 1, 31), true);
+        Subscription weekly = saveSubscription(user, Period.WEEKLY, LocalDate.of(2024, 3, 1), true);
+        Subscription dueToday = saveSubscription(user, Period.MONTHLY, TODAY, true);
+        Subscription inactive = saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 1, 10), false);
+        Subscription oneTime = saveSubscription(user, Period.ONE_TIME, LocalDate.of(2024, 1, 10), true);
+
+        BillingRollForwardJob job = new BillingRollForwardJob(subscriptionRepository, jobLockManager,
+                dataRevisionService, transactionManager, Duration.ofMinutes(5));
+        assertTrue(job.rollForward(TODAY) >= 2);
+
+        assertEquals(LocalDate.of(2024, 3, 31), reload(monthly).getNextBillingDate());
+        assertEquals(LocalDate.of(2024, 3, 15), reload(weekly).getNextBillingDate());
+        assertEquals(TODAY, reload(dueToday).getNextBillingDate());
+        assertEquals(LocalDate.of(2024, 1, 10), reload(inactive).getNextBillingDate());
+        assertEquals(LocalDate.of(2024, 1, 10), reload(oneTime).getNextBillingDate());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rollForward_shouldNotFailOrBumpVersionsWhenRowsChangeMidRun() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AppUser user = transactionTemplate.execute(status ->
+                appUserRepository.save(new AppUser("roll-race-sub", "Roll", "roll-race@example.com", null)));
+        Subscription untouched = transactionTemplate.execute(status -> saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 3, 1), true));
+        Subscription edited = transactionTemplate.execute(status -> saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 3, 2), true));
+        Subscription rescheduled = transactionTemplate.execute(status -> saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 3, 3), true));
+        Subscription deleted = transactionTemplate.execute(status -> saveSubscription(user, Period.MONTHLY, LocalDate.of(2024, 3, 4), true));
+
+        // Users write between the job reading its chunk and updating it, each in their own transaction
+        SubscriptionRepository racingRepository = mock(SubscriptionRepository.class, delegatesTo(subscriptionRepository));
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            List<OverdueBilling> chunk = subscriptionRepository.findOverdueAfterId(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    subscriptionRepository.findById(edited.getId()).orElseThrow().setName("Renamed");
+                    subscriptionRepository.findById(rescheduled.getId()).orElseThrow().setNextBillingDate(LocalDate.of(2024, 4, 20));
+                    subscriptionRepository.deleteById(deleted.getId());
+                })).join();
+            }
+            return chunk;
+        }).when(racingRepository).findOverdueAfterId(anyLong(), any(), any());
+
+        try {
+            BillingRollForwardJob job = new BillingRollForwardJob(racingRepository, jobLockManager,
+                    dataRevisionService, transactionManager, Duration.ofMinutes(5));
+            assertEquals(2, job.rollForward(TODAY));
+
+            assertEquals(LocalDate.of(2024, 4, 1), reload(untouched).getNextBillingDate());
+            assertEquals(untouched.getVersion(), reload(untouched).getVersion());
+            // The rename's version stands, so an If-Match taken after it still matches
+            assertEquals(LocalDate.of(2024, 4, 2), reload(edited).getNextBillingDate());
+            assertEquals(edited.getVersion() + 1, reload(edited).getVersion());
+            assertEquals(LocalDate.of(2024, 4, 20), reload(rescheduled).getNextBillingDate());
+            assertTrue(subscriptionRepository.findById(deleted.getId()).isEmpty());
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                subscriptionRepository.deleteAll(subscriptionRepository.findByAppUser(user));
+                appUserRepository.deleteById(user.getId());
+            });
+        }
+    }
+
+    @Test
+    void tryAcquire_shouldRejectSecondHolderUntilReleased() {
+        String name = "roll-forward-test-lock";
+        assertTrue(jobLockManager.tryAcquire(name, Duration.ofMinutes(5)));
+        assertFalse(jobLockManager.tryAcquire(name, Duration.ofMinutes(5)));
+
+        jobLockManager.release(name);
+        assertTrue(jobLockManager.tryAcquire(name, Duration.ofMinutes(5)));
+        jobLockManager.release(name);
+    }
+
+    private Subscription saveSubscription(AppUser user, Period period, LocalDate nextBillingDate, boolean active) {
+        Subscription subscription = new Subscription();
+        subscription.setName(period + " bill");
+        subscription.setPrice(new BigDecimal("9.99"));
+        subscription.setPeriod(period);
+        subscription.setNextBillingDate(nextBillingDate);
+        subscription.setActive(active);
+        subscription.setAppUser(user);
+        return subscriptionRepository.save(subscription);
+    }
+
+    private Subscription reload(Subscription subscription) {
+        return subscriptionRepository.findById(subscription.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.example.budgettracker.service.DataRevisionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CategoryCountReconcileJobTest {
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private JobLockManager jobLockManager;
+
+    @Autowired
+    private DataRevisionService dataRevisionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reconcile_shouldRecountDriftedCategoriesOnly() {
+        AppUser user = appUserRepository.save(new AppUser("reconcile-sub", "Reconcile", "reconcile@example.com", null));
+        Category drifted = categoryRepository.save(new Category("Streaming", user));
+        Category correct = categoryRepository.save(new Category("Music", user));
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Netflix",
+                new BigDecimal("15.99"), Period.MONTHLY, user, drifted));
+        // Written around the service, as a failed deploy or manual fix might
+        categoryRepository.adjustActiveSubscriptionCount(drifted.getId(), 4);
+        long revision = dataRevisionService.currentRevision(user);
+
+        CategoryCountReconcileJob job = new CategoryCountReconcileJob(appUserRepository, categoryRepository,
+                jobLockManager, dataRevisionService, transactionManager, Duration.ofMinutes(5));
+
+        assertTrue(job.reconcile() >= 1);
+        assertEquals(1L, categoryRepository.findActiveSubscriptionCountById(drifted.getId()).orElseThrow());
+        assertEquals(0L, categoryRepository.findActiveSubscriptionCountById(correct.getId()).orElseThrow());
+        assertTrue(dataRevisionService.currentRevision(user) > revision);
+
+        assertEquals(0, job.reconcile());
+    }
+}
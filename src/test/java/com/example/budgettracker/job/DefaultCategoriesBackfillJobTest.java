@@ -0,0 +1,48 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class DefaultCategoriesBackfillJobTest {
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void backfill_shouldSeedAndStampOnlyUsersThatAreBehind() {
+        AppUser pending = appUserRepository.save(new AppUser("pending-sub", "Pending", "pending@example.com", null));
+        AppUser seeded = new AppUser("seeded-sub", "Seeded", "seeded@example.com", null);
+        seeded.setDefaultCategoriesVersion(CategoryService.DEFAULT_CATEGORIES_VERSION);
+        seeded = appUserRepository.save(seeded);
+
+        DefaultCategoriesBackfillJob job = new DefaultCategoriesBackfillJob(appUserRepository, categoryService, transactionManager);
+        int processed = job.backfill();
+
+        assertEquals(1, processed);
+        assertEquals(CategoryService.DEFAULT_CATEGORIES_VERSION,
+                appUserRepository.findById(pending.getId()).orElseThrow().getDefaultCategoriesVersion());
+        assertFalse(categoryRepository.findByAppUserOrderByNameAsc(pending).isEmpty());
+        assertTrue(categoryRepository.findByAppUserOrderByNameAsc(seeded).isEmpty());
+        assertEquals(0, job.backfill());
+    }
+}
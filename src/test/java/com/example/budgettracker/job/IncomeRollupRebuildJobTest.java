@@ -0,0 +1,94 @@
+package com.example.budgettracker.job;
+
+import com.example.budgettracker.dto.MonthlyIncomeTotal;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.IncomeMonthlyRollup;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.IncomeMonthlyRollupRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.service.IncomeRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class IncomeRollupRebuildJobTest {
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private IncomeMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private IncomeRollupService incomeRollupService;
+
+    @Autowired
+    private JobLockManager jobLockManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rebuild_shouldReplaceStaleRollupsWithTotalsFromIncomeRows() {
+        AppUser user = appUserRepository.save(new AppUser("rollup-sub", "Rollup", "rollup@example.com", null));
+        // Written straight through the repository, so no rollups are maintained
+        saveIncome(user, "100.00", LocalDate.of(2024, 1, 5));
+        saveIncome(user, "50.00", LocalDate.of(2024, 1, 20));
+        saveIncome(user, "75.00", LocalDate.of(2024, 3, 1));
+        rollupRepository.save(new IncomeMonthlyRollup(user, null, LocalDate.of(2023, 12, 1), new BigDecimal("999.00"), 9));
+
+        assertTrue(newJob().rebuild() >= 1);
+
+        List<MonthlyIncomeTotal> totals = incomeRollupService.getMonthlyTotals(user, YearMonth.of(2023, 12), YearMonth.of(2024, 3));
+        assertEquals(List.of("0", "150.00", "0", "75.00"),
+                totals.stream().map(t -> t.getTotal().toPlainString()).toList());
+    }
+
+    @Test
+    void run_shouldSkipWhileAnotherNodeHoldsTheLock() {
+        AppUser user = appUserRepository.save(new AppUser("rollup-lock-sub", "Rollup", "rollup-lock@example.com", null));
+        saveIncome(user, "100.00", LocalDate.of(2024, 1, 5));
+
+        assertTrue(jobLockManager.tryAcquire(IncomeRollupRebuildJob.LOCK_NAME, Duration.ofMinutes(5)));
+        try {
+            newJob().run(null);
+        } finally {
+            jobLockManager.release(IncomeRollupRebuildJob.LOCK_NAME);
+        }
+
+        assertEquals(BigDecimal.ZERO, incomeRollupService.getMonthlyTotals(user, YearMonth.of(2024, 1), YearMonth.of(2024, 1))
+                .get(0).getTotal());
+    }
+
+    private IncomeRollupRebuildJob newJob() {
+        return new IncomeRollupRebuildJob(appUserRepository, incomeRollupService, jobLockManager,
+                transactionManager, Duration.ofMinutes(5));
+    }
+
+    private void saveIncome(AppUser user, String amount, LocalDate date) {
+        Income income = new Income();
+        income.setName("Income " + date);
+        income.setAmount(new BigDecimal(amount));
+        income.setIncomeDate(date);
+        income.setPeriod(Period.ONE_TIME);
+        income.setAppUser(user);
+        incomeRepository.save(income);
+    }
+}
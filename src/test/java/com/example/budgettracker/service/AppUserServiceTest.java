@@ -1,5 +1,7 @@
 package com.example.budgettracker.service;
 
+import com.example.budgettracker.cache.AppUserCache;
+import com.example.budgettracker.dto.AppUserSummary;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.repository.AppUserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +27,9 @@ class AppUserServiceTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private AppUserCache appUserCache;
+
     @InjectMocks
     private AppUserService appUserService;
 
@@ -33,9 +38,9 @@ class AppUserServiceTest {
     @BeforeEach
     void setUp() {
         oidcUser = mock(OidcUser.class);
-        when(oidcUser.getSubject()).thenReturn("google123");
-        when(oidcUser.getFullName()).thenReturn("Test User");
-        when(oidcUser.getEmail()).thenReturn("test@example.com");
+        lenient().when(oidcUser.getSubject()).thenReturn("google123");
+        lenient().when(oidcUser.getFullName()).thenReturn("Test User");
+        lenient().when(oidcUser.getEmail()).thenReturn("test@example.com");
     }
 
     @Test
@@ -70,4 +75,38 @@ class AppUserServiceTest {
         assertEquals("Test User", existingUser.getFullName());
         assertEquals("test@example.com", existingUser.getEmail());
     }
+
+    @Test
+    void processUserLogin_shouldSkipCategoryReconciliation_whenDefaultsAreCurrent() {
+        AppUser existingUser = new AppUser("google123", "Test User", "test@example.com", null);
+        existingUser.setDefaultCategoriesVersion(CategoryService.DEFAULT_CATEGORIES_VERSION);
+        when(mockUserRepo.findByGoogleSub("google123")).thenReturn(Optional.of(existingUser));
+
+        appUserService.processUserLogin(oidcUser);
+
+        verify(categoryService, never()).ensureDefaultCategoriesExist(any(AppUser.class));
+    }
+
+    @Test
+    void updateCurrency_shouldUpdateManagedUser() {
+        AppUser managedUser = new AppUser("google123", "Test User", "test@example.com", null);
+        managedUser.setId(1L);
+        AppUser requestUser = new AppUser("google123", "Test User", "test@example.com", null);
+        requestUser.setId(1L);
+        when(mockUserRepo.findById(1L)).thenReturn(Optional.of(managedUser));
+
+        appUserService.updateCurrency(requestUser, "EUR");
+
+        assertEquals("EUR", managedUser.getCurrency());
+        assertEquals("EUR", requestUser.getCurrency());
+    }
+
+    @Test
+    void findByOidcUser_shouldReadSummaryProjection() {
+        AppUserSummary summary = new AppUserSummary(1L, "google123", "test@example.com", "Test User", null, "USD");
+        when(mockUserRepo.findSummaryByGoogleSub("google123")).thenReturn(Optional.of(summary));
+
+        assertEquals(Optional.of(summary), appUserService.findByOidcUser(oidcUser));
+        assertEquals(Optional.empty(), appUserService.findByOidcUser(null));
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.SubscriptionRequest;
+import com.example.budgettracker.exception.StaleVersionException;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@SpringBootTest
+@Transactional
+class CategoryActiveCountTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private AppUser user;
+    private Category streaming;
+    private Category music;
+
+    @BeforeEach
+    void setUp() {
+        user = appUserRepository.save(new AppUser("count-sub", "Count User", "count@example.com", null));
+        streaming = categoryRepository.save(new Category("Streaming", user));
+        music = categoryRepository.save(new Category("Music", user));
+    }
+
+    @Test
+    void writesKeepTheStoredCountInStep() {
+        Subscription netflix = subscriptionService.saveSubscriptionForUser(request("Netflix", streaming, true), user);
+        subscriptionService.saveSubscriptionForUser(request("Old plan", streaming, false), user);
+        assertCounts(1, 0);
+
+        subscriptionService.patchSubscriptionForUser(netflix.getId(),
+                JsonNodeFactory.instance.objectNode().put("active", false), user, null);
+        assertCounts(0, 0);
+
+        subscriptionService.updateSubscriptionForUser(netflix.getId(), request("Netflix", music, true), user, null);
+        assertCounts(0, 1);
+
+        subscriptionService.patchSubscriptionForUser(netflix.getId(),
+                JsonNodeFactory.instance.objectNode().put("categoryId", streaming.getId()), user, null);
+        assertCounts(1, 0);
+
+        subscriptionService.deleteSubscriptionForUser(netflix.getId(), user, null);
+        assertCounts(0, 0);
+    }
+
+    @Test
+    void versionedDeleteCountsTheRowItRemoved() {
+        Subscription netflix = subscriptionService.saveSubscriptionForUser(request("Netflix", streaming, true), user);
+        Long createdVersion = netflix.getVersion();
+        Subscription moved = subscriptionService.patchSubscriptionForUser(netflix.getId(),
+                JsonNodeFactory.instance.objectNode().put("categoryId", music.getId()), user, null);
+        assertCounts(0, 1);
+
+        Assertions.assertThrows(StaleVersionException.class,
+                () -> subscriptionService.deleteSubscriptionForUser(netflix.getId(), user, createdVersion));
+        assertCounts(0, 1);
+
+        subscriptionService.deleteSubscriptionForUser(netflix.getId(), user, moved.getVersion());
+        assertCounts(0, 0);
+    }
+
+    @Test
+    void deleteLeavesOtherLoadedEntitiesManaged() {
+        Subscription netflix = subscriptionService.saveSubscriptionForUser(request("Netflix", music, true), user);
+
+        subscriptionService.deleteSubscriptionForUser(netflix.getId(), user, null);
+
+        Assertions.assertFalse(entityManager.contains(netflix));
+        Assertions.assertTrue(entityManager.contains(user));
+        Assertions.assertTrue(entityManager.contains(music));
+        // A change made after the delete in the same transaction still reaches the database
+        music.setName("Tunes");
+        entityManager.flush();
+        entityManager.clear();
+        Assertions.assertEquals("Tunes", categoryRepository.findById(music.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void importCountsActiveRowsPerCategory() throws Exception {
+        String csv = """
+                name,price,period,nextBillingDate,category,active
+                Spotify,9.99,MONTHLY,2030-01-01,Music,true
+                Tidal,10.99,MONTHLY,2030-01-01,Music,true
+                Paused,4.99,MONTHLY,2030-01-01,Streaming,false
+                """;
+        importService.importSubscriptions(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), user);
+
+        assertCounts(0, 2);
+        Assertions.assertEquals(2, categoryService.getCategoriesWithCountsForUser(user).stream()
+                .filter(c -> c.getName().equals("Music")).findFirst().orElseThrow().getSubscriptionCount());
+    }
+
+    private void assertCounts(long expectedStreaming, long expectedMusic) {
+        Assertions.assertEquals(expectedStreaming, categoryService.getActiveSubscriptionCount(streaming), "Streaming");
+        Assertions.assertEquals(expectedMusic, categoryService.getActiveSubscriptionCount(music), "Music");
+    }
+
+    private static SubscriptionRequest request(String name, Category category, boolean active) {
+        SubscriptionRequest request = TestDataBuilder.createSubscriptionRequest(name, new BigDecimal("9.99"),
+                Period.MONTHLY, LocalDate.now().plusDays(5), category.getId());
+        request.setActive(active);
+        return request;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CategoryBatchInsertTest {
+
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Transactional
+    void seedingDefaultCategoriesUsesBatchedInserts() {
+        AppUser user = appUserRepository.save(new AppUser("batch-sub", "Batch User", "batch@example.com", null));
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        categoryService.ensureDefaultCategoriesExist(user);
+        entityManager.flush();
+        long prepared = statistics.getPrepareStatementCount();
+        long inserted = statistics.getEntityInsertCount();
+
+        int seeded = categoryRepository.findByAppUserOrderByNameAsc(user).size();
+        Assertions.assertTrue(seeded > 5);
+        Assertions.assertEquals(seeded, inserted);
+        // One SELECT for existing names, the sequence calls for one id block (two on a fresh sequence),
+        // one batched INSERT, the data revision bump and the user stamp UPDATE, instead of one INSERT
+        // round-trip per category
+        Assertions.assertTrue(prepared <= 6, "Expected batched inserts but prepared " + prepared + " statements");
+    }
+}
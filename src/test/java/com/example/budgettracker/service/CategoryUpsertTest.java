@@ -0,0 +1,75 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class CategoryUpsertTest {
+
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = appUserRepository.save(new AppUser("upsert-sub", "Upsert User", "upsert@example.com", null));
+        entityManager.flush();
+    }
+
+    @Test
+    void findOrCreateReusesExistingNameInAnyCase() {
+        Category existing = categoryRepository.saveAndFlush(new Category("Subscriptions", user));
+
+        Category found = categoryService.findOrCreateCategory("subscriptions", CategoryType.SUBSCRIPTION, user);
+
+        Assertions.assertEquals(existing.getId(), found.getId());
+        Assertions.assertEquals(1, categoryRepository.findByAppUserOrderByNameAsc(user).size());
+    }
+
+    @Test
+    void findOrCreateInsertsOnceAndLeavesLaterInsertsAsNoOps() {
+        Category created = categoryService.findOrCreateCategory("Streaming", CategoryType.SUBSCRIPTION, user);
+        Category again = categoryService.findOrCreateCategory("STREAMING", CategoryType.SUBSCRIPTION, user);
+
+        Assertions.assertEquals("Streaming", created.getName());
+        Assertions.assertEquals(created.getId(), again.getId());
+        // What a transaction losing the race would run: no row, no exception
+        Assertions.assertFalse(categoryRepository.insertIfAbsent("streaming", CategoryType.SUBSCRIPTION, user));
+
+        // Ids from the raw sequence and from Hibernate's pooled blocks do not collide
+        Category other = categoryRepository.saveAndFlush(new Category("Other", user));
+        Assertions.assertNotEquals(created.getId(), other.getId());
+        Assertions.assertEquals(2, categoryRepository.findByAppUserOrderByNameAsc(user).size());
+    }
+
+    @Test
+    void defaultsSkipNamesTheUserHasInAnotherCase() {
+        Category utilities = categoryRepository.saveAndFlush(new Category("UTILITIES", user));
+
+        categoryService.ensureDefaultCategoriesExist(user);
+        entityManager.flush();
+
+        Assertions.assertEquals(List.of(utilities.getId()), categoryRepository.findByAppUserOrderByNameAsc(user).stream()
+                .filter(c -> c.getName().equalsIgnoreCase("Utilities")).map(Category::getId).toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.DashboardMetricsResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private IncomeRollupService incomeRollupService;
+
+    @InjectMocks
+    private DashboardServiceImpl dashboardService;
+
+    private AppUser testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        testUser = TestDataBuilder.createTestUser();
+        testCategory = TestDataBuilder.createTestCategory(1L, "Entertainment", testUser);
+    }
+
+    private Subscription subscription(Long id, String price, Period period, LocalDate nextBillingDate) {
+        Subscription subscription = TestDataBuilder.createTestSubscription(id, "Sub " + id, new BigDecimal(price),
+                period, testUser, testCategory);
+        subscription.setNextBillingDate(nextBillingDate);
+        return subscription;
+    }
+
+    @Test
+    void getMetricsForUser_ShouldAggregateSpendUpcomingAndRecentActivity() {
+        LocalDate today = LocalDate.now();
+        Subscription dueSoon = subscription(1L, "15.99", Period.MONTHLY, today.plusDays(3));
+        Subscription dueLater = subscription(2L, "120.00", Period.YEARLY, today.plusDays(60));
+        Subscription dueTomorrow = subscription(3L, "30.00", Period.QUARTERLY, today.plusDays(1));
+        when(subscriptionRepository.findByAppUserAndActive(testUser, true))
+                .thenReturn(List.of(dueSoon, dueLater, dueTomorrow));
+        when(incomeRollupService.getTotalIncome(eq(testUser), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(new BigDecimal("5000.00"));
+
+        DashboardMetricsResponse metrics = dashboardService.getMetricsForUser(testUser);
+
+        // 15.99 + 120/12 + 30/3
+        assertEquals(0, new BigDecimal("35.99").compareTo(metrics.getTotalMonthlySpend()));
+        assertEquals(3, metrics.getActiveSubscriptions());
+        assertEquals(2, metrics.getUpcomingBillCount());
+        assertEquals(today.plusDays(1), metrics.getNextBillDate());
+        assertEquals(new BigDecimal("30.00"), metrics.getNextBillAmount());
+        assertEquals(List.of(3L, 1L), metrics.getUpcomingBills().stream().map(s -> s.getId()).toList());
+        // Only the monthly subscription was last billed within the past 30 days
+        assertEquals(1, metrics.getRecentActivity().size());
+        assertEquals(1L, metrics.getRecentActivity().get(0).getId());
+        assertEquals(new BigDecimal("5000.00"), metrics.getMonthlyIncome());
+    }
+
+    @Test
+    void getMetricsForUser_WithNoSubscriptions_ShouldReturnZeroes() {
+        when(subscriptionRepository.findByAppUserAndActive(testUser, true)).thenReturn(List.of());
+        when(incomeRollupService.getTotalIncome(eq(testUser), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(BigDecimal.ZERO);
+
+        DashboardMetricsResponse metrics = dashboardService.getMetricsForUser(testUser);
+
+        assertEquals(BigDecimal.ZERO, metrics.getTotalMonthlySpend());
+        assertEquals(0, metrics.getUpcomingBillCount());
+        assertNull(metrics.getNextBillDate());
+        assertTrue(metrics.getRecentActivity().isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.IncomeMonthlyRollupRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IncomeRollupServiceTest {
+
+    @Mock
+    private IncomeMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @InjectMocks
+    private IncomeRollupServiceImpl incomeRollupService;
+
+    private AppUser testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        testUser = TestDataBuilder.createTestUser();
+        testCategory = TestDataBuilder.createTestCategory(1L, "Salary", testUser);
+    }
+
+    private Income income(String amount, LocalDate date) {
+        Income income = new Income();
+        income.setAmount(new BigDecimal(amount));
+        income.setIncomeDate(date);
+        income.setPeriod(Period.ONE_TIME);
+        income.setCategory(testCategory);
+        income.setAppUser(testUser);
+        return income;
+    }
+
+    @Test
+    void getTotalIncome_ShouldUseRollupsForWholeMonthsAndRowsForEdges() {
+        when(rollupRepository.sumTotals(testUser, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)))
+                .thenReturn(new BigDecimal("2000.00"));
+        when(incomeRepository.getTotalIncomeForPeriod(testUser, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 31)))
+                .thenReturn(new BigDecimal("100.00"));
+        when(incomeRepository.getTotalIncomeForPeriod(testUser, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 10)))
+                .thenReturn(new BigDecimal("10.00"));
+
+        BigDecimal total = incomeRollupService.getTotalIncome(testUser, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 4, 10));
+
+        assertEquals(new BigDecimal("2110.00"), total);
+    }
+
+    @Test
+    void getTotalIncome_ForAlignedMonths_ShouldOnlyReadRollups() {
+        when(rollupRepository.sumTotals(testUser, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1)))
+                .thenReturn(new BigDecimal("60000.00"));
+
+        BigDecimal total = incomeRollupService.getTotalIncome(testUser, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+        assertEquals(new BigDecimal("60000.00"), total);
+        verifyNoInteractions(incomeRepository);
+    }
+
+    @Test
+    void getTotalIncome_WithinOneMonth_ShouldOnlyReadRows() {
+        when(incomeRepository.getTotalIncomeForPeriod(testUser, LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 30)))
+                .thenReturn(new BigDecimal("42.00"));
+
+        assertEquals(new BigDecimal("42.00"),
+                incomeRollupService.getTotalIncome(testUser, LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 30)));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordAdded_ShouldCollapseBucketsIntoOneUpsertEach() {
+        incomeRollupService.recordAdded(List.of(
+                income("100.00", LocalDate.of(2024, 1, 3)),
+                income("50.00", LocalDate.of(2024, 1, 28)),
+                income("25.00", LocalDate.of(2024, 2, 14))));
+
+        verify(rollupRepository).lockOwner(testUser);
+        verify(rollupRepository).addToBucket(testUser, 1L, LocalDate.of(2024, 1, 1), new BigDecimal("150.00"), 2L);
+        verify(rollupRepository).addToBucket(testUser, 1L, LocalDate.of(2024, 2, 1), new BigDecimal("25.00"), 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordRemoved_ShouldDecrementUncategorizedBucket() {
+        Income income = income("30.00", LocalDate.of(2024, 6, 9));
+        income.setCategory(null);
+
+        incomeRollupService.recordRemoved(income);
+
+        verify(rollupRepository).lockOwner(testUser);
+        verify(rollupRepository).addToBucket(testUser, null, LocalDate.of(2024, 6, 1), new BigDecimal("-30.00"), -1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.dto.CategoryIncomeTotal;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.IncomeMonthlyRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs without a test transaction: each writer commits on its own thread, so both
+ * can race to create the same bucket.
+ */
+@SpringBootTest
+class IncomeRollupUpsertTest {
+
+    private static final int MONTHS = 12;
+
+    @Autowired
+    private IncomeRollupService incomeRollupService;
+    @Autowired
+    private IncomeMonthlyRollupRepository rollupRepository;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private AppUser user;
+    private Category salary;
+
+    @BeforeEach
+    void setUp() {
+        user = appUserRepository.save(new AppUser("rollup-race-sub", "Rollup User", "rollup@example.com", null));
+        salary = categoryRepository.save(new Category("Salary", user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteByAppUser(user);
+            categoryRepository.deleteById(salary.getId());
+            appUserRepository.deleteById(user.getId());
+        });
+    }
+
+    @Test
+    void concurrentWritersToANewBucketBothLand() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A fresh bucket per round; both writers start each round together
+            for (int month = 1; month <= MONTHS; month++) {
+                LocalDate date = LocalDate.of(2024, month, 10);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<CompletableFuture<Void>> writers = List.of(
+                        CompletableFuture.runAsync(() -> record(barrier, date, "100.00"), executor),
+                        CompletableFuture.runAsync(() -> record(barrier, date, "250.00"), executor));
+                CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(MONTHS, rollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getAppUser().getId().equals(user.getId())).count());
+        CategoryIncomeTotal total = rollupRepository.findCategoryTotals(user).get(0);
+        Assertions.assertEquals(2L * MONTHS, total.getCount());
+        Assertions.assertEquals(new BigDecimal("350.00").multiply(BigDecimal.valueOf(MONTHS)), total.getTotal());
+    }
+
+    private void record(CyclicBarrier barrier, LocalDate date, String amount) {
+        Income income = new Income();
+        income.setName("Salary");
+        income.setAmount(new BigDecimal(amount));
+        income.setIncomeDate(date);
+        income.setPeriod(Period.ONE_TIME);
+        income.setAppUser(user);
+        income.setCategory(salary);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            incomeRollupService.recordAdded(List.of(income));
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.AppUserSummary;
+import com.example.budgettracker.dto.CursorPage;
+import com.example.budgettracker.dto.IncomeResponse;
+import com.example.budgettracker.dto.SubscriptionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ListProjectionTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+    @Autowired
+    private IncomeService incomeService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private IncomeRepository incomeRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private AppUser user;
+    private Category streaming;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = appUserRepository.save(new AppUser("projection-sub", "Projection User", "projection@example.com", null));
+        streaming = categoryRepository.save(new Category("Streaming", user));
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void subscriptionPagesAreReadWithoutLoadingEntities() {
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Netflix", new BigDecimal("15.99"), Period.MONTHLY, user, streaming));
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Gym", new BigDecimal("30.00"), Period.MONTHLY, user, null));
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Hulu", new BigDecimal("7.99"), Period.MONTHLY, user, streaming));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<SubscriptionResponse> page = subscriptionService.getSubscriptionsForUser(user, PageRequest.of(0, 2, Sort.by("name")));
+        CursorPage<SubscriptionResponse> cursorPage = subscriptionService.getSubscriptionsForUser(user, "", 2);
+
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(List.of("Gym", "Hulu"), page.getContent().stream().map(SubscriptionResponse::getName).toList());
+        Assertions.assertNull(page.getContent().get(0).getCategoryName());
+        Assertions.assertEquals("Streaming", page.getContent().get(1).getCategoryName());
+        Assertions.assertEquals(page.getContent(), cursorPage.getContent());
+        Assertions.assertTrue(cursorPage.isHasNext());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void incomePagesAreReadWithoutLoadingEntities() {
+        LocalDate today = LocalDate.now();
+        saveIncome("Salary", today.minusDays(3), streaming);
+        saveIncome("Refund", today, null);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<IncomeResponse> page = incomeService.getIncomeForUser(user, PageRequest.of(0, 10));
+        CursorPage<IncomeResponse> cursorPage = incomeService.getIncomeForUser(user, "", 1);
+
+        Assertions.assertEquals(List.of("Refund", "Salary"), page.getContent().stream().map(IncomeResponse::getName).toList());
+        Assertions.assertEquals("Streaming", page.getContent().get(1).getCategoryName());
+        Assertions.assertEquals(List.of(page.getContent().get(0)), cursorPage.getContent());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void userSummaryIsOneRowWhateverTheSubscriptionCount() {
+        for (int i = 0; i < 5; i++) {
+            subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Sub " + i, new BigDecimal("1.00"), Period.MONTHLY, user, streaming));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        AppUserSummary summary = appUserRepository.findSummaryByGoogleSub("projection-sub").orElseThrow();
+
+        Assertions.assertEquals(user.getId(), summary.getId());
+        Assertions.assertEquals("USD", summary.getCurrency());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void subscriptionCollectionsAreBatchFetched() {
+        AppUser other = appUserRepository.save(new AppUser("projection-other", "Other User", "other@example.com", null));
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Netflix", new BigDecimal("15.99"), Period.MONTHLY, user, streaming));
+        subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Gym", new BigDecimal("30.00"), Period.MONTHLY, other, null));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<AppUser> users = appUserRepository.findAllById(List.of(user.getId(), other.getId()));
+        users.forEach(u -> Assertions.assertEquals(1, u.getSubscriptions().size()));
+
+        Assertions.assertEquals(1, statistics.getCollectionFetchCount());
+    }
+
+    private void saveIncome(String name, LocalDate date, Category category) {
+        Income income = new Income();
+        income.setName(name);
+        income.setAmount(new BigDecimal("100.00"));
+        income.setIncomeDate(date);
+        income.setPeriod(Period.ONE_TIME);
+        income.setAppUser(user);
+        income.setCategory(category);
+        incomeRepository.save(income);
+    }
+}
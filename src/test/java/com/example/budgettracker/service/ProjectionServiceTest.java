@@ -0,0 +1,86 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.ProjectedOccurrence;
+import com.example.budgettracker.dto.ProjectionResponse;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Income;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.IncomeRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectionServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @InjectMocks
+    private ProjectionServiceImpl projectionService;
+
+    private AppUser testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = TestDataBuilder.createTestUser();
+
+        Income salary = new Income();
+        salary.setId(10L);
+        salary.setName("Salary");
+        salary.setAmount(new BigDecimal("3000.00"));
+        salary.setIncomeDate(LocalDate.of(2023, 11, 30));
+        salary.setPeriod(Period.MONTHLY);
+
+        Subscription gym = TestDataBuilder.createTestSubscription(20L, "Gym", new BigDecimal("25.00"),
+                Period.MONTHLY, testUser, null);
+        gym.setNextBillingDate(LocalDate.of(2024, 1, 15));
+
+        when(incomeRepository.findProjectableByUser(testUser, FROM, TO)).thenReturn(List.of(salary));
+        when(subscriptionRepository.findActiveDueByAppUser(testUser, TO)).thenReturn(List.of(gym));
+    }
+
+    @Test
+    void projectOccurrences_ShouldMergeSeriesChronologically() {
+        List<ProjectedOccurrence> occurrences = projectionService.projectOccurrences(testUser, FROM, TO).toList();
+
+        assertEquals(List.of(
+                LocalDate.of(2024, 1, 15),
+                LocalDate.of(2024, 1, 30),
+                LocalDate.of(2024, 2, 15),
+                LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 3, 15),
+                LocalDate.of(2024, 3, 30)),
+                occurrences.stream().map(ProjectedOccurrence::getDate).toList());
+        assertEquals(ProjectedOccurrence.Type.SUBSCRIPTION, occurrences.get(0).getType());
+        assertEquals(10L, occurrences.get(1).getSourceId());
+    }
+
+    @Test
+    void getProjection_ShouldTotalIncomeSpendAndNet() {
+        ProjectionResponse projection = projectionService.getProjection(testUser, FROM, TO);
+
+        assertEquals(new BigDecimal("9000.00"), projection.getProjectedIncome());
+        assertEquals(new BigDecimal("75.00"), projection.getProjectedSpend());
+        assertEquals(new BigDecimal("8925.00"), projection.getNet());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Runs without a test transaction: entries only become visible to other sessions once
+ * the writing transaction commits, which is what these tests observe.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private SubscriptionService subscriptionService;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    private Statistics statistics;
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = appUserRepository.save(new AppUser("l2-cache-sub", "Cache User", "l2@example.com", null));
+        categoryRepository.save(new Category("Streaming", user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            subscriptionRepository.deleteAll(subscriptionRepository.findByAppUser(user));
+            categoryRepository.deleteAll(categoryRepository.findByAppUserOrderByNameAsc(user));
+            appUserRepository.deleteById(user.getId());
+        });
+    }
+
+    @Test
+    void categoryListIsServedFromCacheUntilACategoryIsWritten() {
+        categoryRepository.findByAppUserOrderByNameAsc(user);
+        statistics.clear();
+
+        List<Category> cached = categoryRepository.findByAppUserOrderByNameAsc(user);
+
+        Assertions.assertEquals(List.of("Streaming"), cached.stream().map(Category::getName).toList());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+
+        // The native upsert is synchronized on the category table, so the cached list is dropped
+        transactionTemplate.executeWithoutResult(status -> categoryRepository.insertIfAbsent("Music", CategoryType.SUBSCRIPTION, user));
+
+        Assertions.assertEquals(List.of("Music", "Streaming"),
+                categoryRepository.findByAppUserOrderByNameAsc(user).stream().map(Category::getName).toList());
+    }
+
+    @Test
+    void categoryCountsAreCurrentRightAfterASubscriptionWrite() {
+        Category streaming = categoryRepository.findByAppUserOrderByNameAsc(user).get(0);
+        Assertions.assertEquals(0, subscriptionCount(streaming));
+
+        Subscription created = subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "Netflix", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), streaming.getId()), user);
+        // The category itself is still served from the cache; its count must not be
+        Assertions.assertTrue(entityManagerFactory.getCache().contains(Category.class, streaming.getId()));
+        Assertions.assertEquals(1, subscriptionCount(streaming));
+        Assertions.assertEquals(1, categoryService.getCategoriesByTypeForUser(user, CategoryType.SUBSCRIPTION).get(0).getSubscriptionCount());
+
+        subscriptionService.deleteSubscriptionForUser(created.getId(), user, null);
+        Assertions.assertEquals(0, subscriptionCount(streaming));
+    }
+
+    private long subscriptionCount(Category category) {
+        return categoryService.getCategoriesWithCountsForUser(user).stream()
+                .filter(c -> c.getId().equals(category.getId()))
+                .findFirst().orElseThrow().getSubscriptionCount();
+    }
+
+    @Test
+    void dataRevisionBumpLeavesCachedUsersInPlace() {
+        appUserRepository.findById(user.getId());
+        transactionTemplate.executeWithoutResult(status -> appUserRepository.incrementDataRevision(List.of(user.getId())));
+        statistics.clear();
+
+        Assertions.assertTrue(appUserRepository.findById(user.getId()).isPresent());
+
+        Assertions.assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1L, appUserRepository.findDataRevisionById(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void regionsReportCacheMetrics() {
+        categoryRepository.findByAppUserOrderByNameAsc(user);
+
+        Assertions.assertNotNull(meterRegistry.find("cache.puts").tag("cache", Category.CACHE_REGION).functionCounter());
+        Assertions.assertNotNull(meterRegistry.find("cache.gets").tag("cache", AppUser.CACHE_REGION).functionCounter());
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.budgettracker.service;
 
 import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.dto.DeletedSubscription;
 import com.example.budgettracker.dto.SubscriptionRequest;
+import com.example.budgettracker.exception.StaleVersionException;
 import com.example.budgettracker.exception.SubscriptionNotFoundException;
 import com.example.budgettracker.exception.UnauthorizedAccessException;
 import com.example.budgettracker.model.AppUser;
 import com.example.budgettracker.model.Period;
 import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.CategoryType;
 import com.example.budgettracker.model.Subscription;
 import com.example.budgettracker.repository.SubscriptionRepository;
 import com.example.budgettracker.util.SecurityUtils;
@@ -36,6 +39,9 @@ class SubscriptionServiceTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DataRevisionService dataRevisionService;
+
     @InjectMocks
     private SubscriptionServiceImpl subscriptionService;
 
@@ -115,7 +121,7 @@ class SubscriptionServiceTest {
         Category defaultCategory = new Category("Subscriptions", testUser);
         defaultCategory.setId(1L);
         
-        when(categoryService.findOrCreateCategory("Subscriptions", testUser))
+        when(categoryService.findOrCreateCategory("Subscriptions", CategoryType.SUBSCRIPTION, testUser))
                 .thenReturn(defaultCategory);
         
         Subscription savedSubscription = new Subscription();
@@ -134,7 +140,7 @@ class SubscriptionServiceTest {
         assertNotNull(result.getCategory());
         assertEquals("Subscriptions", result.getCategory().getName());
         
-        verify(categoryService).findOrCreateCategory("Subscriptions", testUser);
+        verify(categoryService).findOrCreateCategory("Subscriptions", CategoryType.SUBSCRIPTION, testUser);
         verify(subscriptionRepository).save(any(Subscription.class));
     }
 
@@ -146,7 +152,7 @@ class SubscriptionServiceTest {
         existingSubscription.setName("Old Name");
         existingSubscription.setAppUser(testUser);
         
-        when(subscriptionRepository.findById(1L))
+        when(subscriptionRepository.findByIdAndAppUser(1L, testUser))
                 .thenReturn(Optional.of(existingSubscription));
         
         when(categoryService.findByIdAndUser(1L, testUser))
@@ -155,58 +161,77 @@ class SubscriptionServiceTest {
         validRequest.setName("Updated Name");
         validRequest.setCategoryId(1L);
         
-        when(subscriptionRepository.save(any(Subscription.class)))
+        when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
                 .thenReturn(existingSubscription);
 
         // Act
-        Subscription result = subscriptionService.updateSubscriptionForUser(1L, validRequest, testUser);
+        Subscription result = subscriptionService.updateSubscriptionForUser(1L, validRequest, testUser, null);
 
         // Assert
         assertNotNull(result);
         assertEquals("Updated Name", existingSubscription.getName());
         assertEquals(new BigDecimal("15.99"), existingSubscription.getPrice());
         
-        verify(subscriptionRepository).findById(1L);
-        verify(subscriptionRepository).save(existingSubscription);
+        verify(subscriptionRepository).findByIdAndAppUser(1L, testUser);
+        verify(subscriptionRepository, never()).findOwnerIdById(any());
+        verify(subscriptionRepository).saveAndFlush(existingSubscription);
     }
 
     @Test
     void updateSubscriptionForUser_WithNonExistentSubscription_ShouldThrowException() {
         // Arrange
-        when(subscriptionRepository.findById(999L))
+        when(subscriptionRepository.findByIdAndAppUser(999L, testUser))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findOwnerIdById(999L))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(SubscriptionNotFoundException.class, () -> {
-            subscriptionService.updateSubscriptionForUser(999L, validRequest, testUser);
+            subscriptionService.updateSubscriptionForUser(999L, validRequest, testUser, null);
         });
         
-        verify(subscriptionRepository).findById(999L);
-        verify(subscriptionRepository, never()).save(any(Subscription.class));
+        verify(subscriptionRepository).findByIdAndAppUser(999L, testUser);
+        verify(subscriptionRepository, never()).saveAndFlush(any(Subscription.class));
     }
 
     @Test
     void updateSubscriptionForUser_WithUnauthorizedUser_ShouldThrowException() {
         // Arrange
-        AppUser otherUser = TestDataBuilder.createTestUser(2L, "other-sub", "Other User", "other@example.com");
-        
-        Subscription existingSubscription = new Subscription();
-        existingSubscription.setId(1L);
-        existingSubscription.setAppUser(otherUser);
-        
-        when(subscriptionRepository.findById(1L))
-                .thenReturn(Optional.of(existingSubscription));
+        when(subscriptionRepository.findByIdAndAppUser(1L, testUser))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findOwnerIdById(1L))
+                .thenReturn(Optional.of(2L));
         
         doThrow(new UnauthorizedAccessException("subscription 1", testUser.getId()))
-                .when(securityUtils).validateResourceOwnership(otherUser, testUser, "subscription", 1L);
+                .when(securityUtils).validateResourceOwnership(2L, testUser, "subscription", 1L);
 
         // Act & Assert
         assertThrows(UnauthorizedAccessException.class, () -> {
-            subscriptionService.updateSubscriptionForUser(1L, validRequest, testUser);
+            subscriptionService.updateSubscriptionForUser(1L, validRequest, testUser, null);
         });
         
-        verify(subscriptionRepository).findById(1L);
-        verify(subscriptionRepository, never()).save(any(Subscription.class));
+        verify(subscriptionRepository).findByIdAndAppUser(1L, testUser);
+        verify(subscriptionRepository, never()).saveAndFlush(any(Subscription.class));
+    }
+
+    @Test
+    void updateSubscriptionForUser_WithStaleVersion_ShouldThrowException() {
+        // Arrange
+        Subscription existingSubscription = new Subscription();
+        existingSubscription.setId(1L);
+        existingSubscription.setAppUser(testUser);
+        existingSubscription.setVersion(3L);
+
+        when(subscriptionRepository.findByIdAndAppUser(1L, testUser))
+                .thenReturn(Optional.of(existingSubscription));
+
+        // Act & Assert
+        assertThrows(StaleVersionException.class, () -> {
+            subscriptionService.updateSubscriptionForUser(1L, validRequest, testUser, 2L);
+        });
+
+        verify(subscriptionRepository, never()).saveAndFlush(any(Subscription.class));
+        verify(dataRevisionService, never()).markChanged(any(AppUser.class));
     }
 
     @Test
@@ -218,54 +243,53 @@ class SubscriptionServiceTest {
         
         testUser.getSubscriptions().add(existingSubscription);
         
-        when(subscriptionRepository.findById(1L))
-                .thenReturn(Optional.of(existingSubscription));
+        when(subscriptionRepository.deleteReturning(1L, testUser, null))
+                .thenReturn(Optional.of(new DeletedSubscription(null, true)));
 
         // Act
-        subscriptionService.deleteSubscriptionForUser(1L, testUser);
+        subscriptionService.deleteSubscriptionForUser(1L, testUser, null);
 
         // Assert
-        verify(subscriptionRepository).findById(1L);
-        verify(subscriptionRepository).delete(existingSubscription);
+        verify(subscriptionRepository).deleteReturning(1L, testUser, null);
+        verify(subscriptionRepository, never()).findById(any());
+        verify(subscriptionRepository, never()).findOwnerIdById(any());
         assertFalse(testUser.getSubscriptions().contains(existingSubscription));
     }
 
     @Test
     void deleteSubscriptionForUser_WithNonExistentSubscription_ShouldThrowException() {
         // Arrange
-        when(subscriptionRepository.findById(999L))
+        when(subscriptionRepository.deleteReturning(999L, testUser, null))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findOwnerIdById(999L))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(SubscriptionNotFoundException.class, () -> {
-            subscriptionService.deleteSubscriptionForUser(999L, testUser);
+            subscriptionService.deleteSubscriptionForUser(999L, testUser, null);
         });
         
-        verify(subscriptionRepository).findById(999L);
-        verify(subscriptionRepository, never()).delete(any(Subscription.class));
+        verify(subscriptionRepository).deleteReturning(999L, testUser, null);
+        verify(dataRevisionService, never()).markChanged(any(AppUser.class));
     }
 
     @Test
     void deleteSubscriptionForUser_WithUnauthorizedUser_ShouldThrowException() {
         // Arrange
-        AppUser otherUser = TestDataBuilder.createTestUser(2L, "other-sub", "Other User", "other@example.com");
-        
-        Subscription existingSubscription = new Subscription();
-        existingSubscription.setId(1L);
-        existingSubscription.setAppUser(otherUser);
-        
-        when(subscriptionRepository.findById(1L))
-                .thenReturn(Optional.of(existingSubscription));
+        when(subscriptionRepository.deleteReturning(1L, testUser, null))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findOwnerIdById(1L))
+                .thenReturn(Optional.of(2L));
         
         doThrow(new UnauthorizedAccessException("subscription 1", testUser.getId()))
-                .when(securityUtils).validateResourceOwnership(otherUser, testUser, "subscription", 1L);
+                .when(securityUtils).validateResourceOwnership(2L, testUser, "subscription", 1L);
 
         // Act & Assert
         assertThrows(UnauthorizedAccessException.class, () -> {
-            subscriptionService.deleteSubscriptionForUser(1L, testUser);
+            subscriptionService.deleteSubscriptionForUser(1L, testUser, null);
         });
         
-        verify(subscriptionRepository).findById(1L);
-        verify(subscriptionRepository, never()).delete(any(Subscription.class));
+        verify(subscriptionRepository).deleteReturning(1L, testUser, null);
+        verify(dataRevisionService, never()).markChanged(any(AppUser.class));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.example.budgettracker.service;
+
+import com.example.budgettracker.TestDataBuilder;
+import com.example.budgettracker.model.AppUser;
+import com.example.budgettracker.model.Category;
+import com.example.budgettracker.model.Period;
+import com.example.budgettracker.model.Subscription;
+import com.example.budgettracker.repository.AppUserRepository;
+import com.example.budgettracker.repository.CategoryRepository;
+import com.example.budgettracker.repository.SubscriptionRepository;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.budgettracker.service.SubscriptionWriteStatementCountTest$StatementCounter"
+})
+@Transactional
+class SubscriptionWriteStatementCountTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Counts the SQL the session issues, leaving out sequence calls: pooled ids fetch a new
+     * block every 50 inserts, which would make the counts depend on earlier tests.
+     */
+    public static class StatementCounter implements StatementInspector {
+
+        static final AtomicLong COUNT = new AtomicLong();
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (!sql.toLowerCase(Locale.ROOT).contains("next value for")) {
+                COUNT.incrementAndGet();
+                STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+
+    @Test
+    void createAndDeleteCostTheSameStatementsRegardlessOfSubscriptionCount() {
+        long[] few = createAndDeleteStatements("few-subs", 1);
+        long[] many = createAndDeleteStatements("many-subs", 60);
+
+        Assertions.assertEquals(few[0], many[0], "create statements grew with the subscription count");
+        Assertions.assertEquals(few[1], many[1], "delete statements grew with the subscription count");
+    }
+
+    @Test
+    void pausingSubscriptionUpdatesOnlyTheActiveColumn() {
+        AppUser user = appUserRepository.save(new AppUser("pause-sub", "Pause User", "pause@example.com", null));
+        Category category = categoryRepository.save(new Category("Streaming", user));
+        Subscription subscription = subscriptionRepository.save(TestDataBuilder.createTestSubscription(null, "Netflix",
+                new BigDecimal("15.99"), Period.MONTHLY, user, category));
+        entityManager.flush();
+        entityManager.clear();
+
+        StatementCounter.STATEMENTS.clear();
+        subscriptionService.patchSubscriptionForUser(subscription.getId(),
+                JsonNodeFactory.instance.objectNode().put("active", false), user, null);
+        entityManager.flush();
+
+        List<String> updates = StatementCounter.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("update subscription")).toList();
+        Assertions.assertEquals(1, updates.size());
+        Assertions.assertTrue(updates.get(0).contains("is_active"));
+        Assertions.assertFalse(updates.get(0).contains("name"), updates.get(0));
+        Assertions.assertFalse(updates.get(0).contains("category_id"), updates.get(0));
+        // Unchanged category: no lookup of the category row
+        Assertions.assertTrue(StatementCounter.STATEMENTS.stream().noneMatch(sql -> sql.contains("from category")));
+    }
+
+    @Test
+    void repeatedCreatesResolveCategoriesWithoutQueries() {
+        AppUser user = appUserRepository.save(new AppUser("cached-sub", "Cached User", "cached@example.com", null));
+        Category category = categoryRepository.save(new Category("Streaming", user));
+        entityManager.flush();
+
+        // Warm up: the first creates load the snapshot and create the default category
+        subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "First", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), null), user);
+        subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "Second", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), category.getId()), user);
+        entityManager.flush();
+
+        StatementCounter.STATEMENTS.clear();
+        subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "Third", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), category.getId()), user);
+        subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "Fourth", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), null), user);
+        entityManager.flush();
+
+        Assertions.assertTrue(StatementCounter.STATEMENTS.stream().noneMatch(sql -> sql.contains("from category")),
+                String.join("\n", StatementCounter.STATEMENTS));
+        Assertions.assertTrue(StatementCounter.STATEMENTS.stream().noneMatch(sql -> sql.startsWith("update subscription")),
+                String.join("\n", StatementCounter.STATEMENTS));
+
+        entityManager.clear();
+        Map<String, Long> categoryByName = subscriptionRepository.findByAppUser(user).stream()
+                .collect(Collectors.toMap(Subscription::getName, s -> s.getCategory().getId()));
+        Assertions.assertEquals(category.getId(), categoryByName.get("Third"));
+        Assertions.assertEquals(categoryByName.get("First"), categoryByName.get("Fourth"));
+    }
+
+    // Returns the statements prepared by a create and by a delete for a managed user
+    private long[] createAndDeleteStatements(String googleSub, int existing) {
+        AppUser saved = appUserRepository.save(new AppUser(googleSub, "Count User", googleSub + "@example.com", null));
+        Category category = categoryRepository.save(new Category("Streaming", saved));
+        for (int i = 0; i < existing; i++) {
+            Subscription subscription = TestDataBuilder.createTestSubscription(null, "Existing " + i,
+                    new BigDecimal("4.99"), Period.MONTHLY, saved, category);
+            subscriptionRepository.save(subscription);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        AppUser user = appUserRepository.findById(saved.getId()).orElseThrow();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        StatementCounter.COUNT.set(0);
+        Subscription created = subscriptionService.saveSubscriptionForUser(TestDataBuilder.createSubscriptionRequest(
+                "New", new BigDecimal("9.99"), Period.MONTHLY, LocalDate.now().plusDays(5), category.getId()), user);
+        entityManager.flush();
+        long createStatements = StatementCounter.COUNT.get();
+
+        StatementCounter.COUNT.set(0);
+        subscriptionService.deleteSubscriptionForUser(created.getId(), user, null);
+        entityManager.flush();
+        long deleteStatements = StatementCounter.COUNT.get();
+
+        Assertions.assertFalse(Hibernate.isInitialized(user.getSubscriptions()));
+        Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+        return new long[]{createStatements, deleteStatements};
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.budgettracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void testReadRecord_PlainAndQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("name,amount\n\"Salary, March\",\"say \"\"hi\"\"\"\n"));
+
+        assertEquals(List.of("name", "amount"), reader.readRecord());
+        assertEquals(List.of("Salary, March", "say \"hi\""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testReadRecord_EmbeddedNewlineAndCrlf() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,\"line1\r\nline2\"\r\nb,c\r\n"));
+
+        assertEquals(List.of("a", "line1\r\nline2"), reader.readRecord());
+        assertEquals(List.of("b", "c"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testReadRecord_StripsBomAndKeepsEmptyFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("﻿name,,x"));
+
+        assertEquals(List.of("name", "", "x"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+}
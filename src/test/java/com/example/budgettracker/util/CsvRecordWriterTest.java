@@ -0,0 +1,31 @@
+package com.example.budgettracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordWriterTest {
+
+    @Test
+    void testWriteRecord_QuotesOnlyWhenNeeded() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvRecordWriter(out).writeRecord("plain", 12, null, "a,b", "say \"hi\"");
+
+        assertEquals("plain,12,,\"a,b\",\"say \"\"hi\"\"\"\r\n", out.toString());
+    }
+
+    @Test
+    void testWriteRecord_RoundTripsThroughReader() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvRecordWriter(out).writeRecord("multi\nline", "", "x");
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(out.toString()));
+        assertEquals(Arrays.asList("multi\nline", "", "x"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.budgettracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfxTransactionReaderTest {
+
+    @Test
+    void testNext_SgmlWithUnclosedLeafTags() throws IOException {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240115120000[-5:EST]
+                <TRNAMT>2500.00
+                <NAME>ACME PAYROLL
+                <MEMO>January salary
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240116
+                <TRNAMT>-12.50
+                <NAME>COFFEE
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        OfxTransactionReader reader = new OfxTransactionReader(new StringReader(ofx));
+
+        OfxTransactionReader.Transaction first = reader.next();
+        assertEquals("CREDIT", first.getType());
+        assertEquals("20240115120000[-5:EST]", first.getDatePosted());
+        assertEquals("2500.00", first.getAmount());
+        assertEquals("ACME PAYROLL", first.getName());
+        assertEquals("January salary", first.getMemo());
+
+        OfxTransactionReader.Transaction second = reader.next();
+        assertEquals("-12.50", second.getAmount());
+        assertNull(second.getMemo());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testNext_XmlWithClosedTags() throws IOException {
+        String ofx = "<?xml version=\"1.0\"?><OFX><STMTTRN><TRNAMT>10.00</TRNAMT><NAME>Refund</NAME></STMTTRN></OFX>";
+        OfxTransactionReader reader = new OfxTransactionReader(new StringReader(ofx));
+
+        OfxTransactionReader.Transaction transaction = reader.next();
+        assertEquals("10.00", transaction.getAmount());
+        assertEquals("Refund", transaction.getName());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.budgettracker.util;
+
+import com.example.budgettracker.model.Period;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceTest {
+
+    @Test
+    void testBetween_MonthEndClampsWithoutDrifting() {
+        Recurrence monthly = new Recurrence(LocalDate.of(2024, 1, 31), Period.MONTHLY);
+
+        assertEquals(List.of(
+                LocalDate.of(2024, 1, 31),
+                LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 3, 31),
+                LocalDate.of(2024, 4, 30)),
+                monthly.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 30)).toList());
+    }
+
+    @Test
+    void testBetween_LeapDayYearlyFallsBackToFeb28() {
+        Recurrence yearly = new Recurrence(LocalDate.of(2024, 2, 29), Period.YEARLY);
+
+        assertEquals(List.of(
+                LocalDate.of(2025, 2, 28),
+                LocalDate.of(2026, 2, 28),
+                LocalDate.of(2027, 2, 28),
+                LocalDate.of(2028, 2, 29)),
+                yearly.between(LocalDate.of(2024, 3, 1), LocalDate.of(2028, 12, 31)).toList());
+    }
+
+    @Test
+    void testBetween_StartsAtAnchorAndSkipsToWindow() {
+        Recurrence weekly = new Recurrence(LocalDate.of(2024, 1, 1), Period.WEEKLY);
+
+        assertTrue(weekly.between(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)).findAny().isEmpty());
+        assertEquals(List.of(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11)),
+                weekly.between(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 17)).toList());
+    }
+
+    @Test
+    void testBetween_OneTimeOnlyOnAnchor() {
+        Recurrence once = new Recurrence(LocalDate.of(2024, 6, 15), Period.ONE_TIME);
+
+        assertEquals(List.of(LocalDate.of(2024, 6, 15)),
+                once.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).toList());
+        assertEquals(0, once.count(LocalDate.of(2024, 6, 16), LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    void testCount_MatchesEnumerationForEveryPeriod() {
+        LocalDate from = LocalDate.of(2024, 2, 10);
+        LocalDate to = LocalDate.of(2029, 2, 9);
+        for (Period period : Period.values()) {
+            for (int day = 1; day <= 31; day += 3) {
+                Recurrence recurrence = new Recurrence(LocalDate.of(2023, 12, day), period);
+                assertEquals(recurrence.between(from, to).count(), recurrence.count(from, to), period + " from day " + day);
+            }
+        }
+    }
+
+    @Test
+    void testCount_FiveYearsOfDailyItems() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = from.plusYears(5).minusDays(1);
+        long total = 0;
+        for (int i = 0; i < 5000; i++) {
+            total += new Recurrence(from.minusDays(i), Period.DAILY).count(from, to);
+        }
+        assertEquals(5000L * 1826, total);
+    }
+}
@@ -0,0 +1,3 @@
+-- Production schemas were first generated by Hibernate and baselined, so they carry the
+-- enum check V13 drops; V1 never creates it. Recreated here so the chain runs on an empty database.
+ALTER TABLE subscription ADD CONSTRAINT subscription_billing_period_check CHECK (period IS NOT NULL);
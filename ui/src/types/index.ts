@@ -25,6 +25,8 @@ export interface Category {
   name: string;
   locked: boolean;
   subscriptionCount?: number;
+  incomeCount?: number;
+  incomeTotal?: number;
 }
 
 export interface CategoryRequest {